@@ -0,0 +1,71 @@
+package panic.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import panic.org.Organism;
+import panic.scenario.Scenario;
+import panic.tile.BoardTile;
+
+/**
+ * Times BoardTile#moveOrganism(Organism, BoardTile) over a whole placed population.<br>
+ * Every Organism is moved onto a passable neighbor and straight back, so the board is the same
+ * before and after each invocation.
+ * @author Sam Paniccia
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class BoardBenchmark {
+
+  @Param({ "10", "1000", "100000", "1000000" })
+  public int population;
+
+  private Organism[] movers;
+
+  private BoardTile[] destinations;
+
+  @Setup
+  public void placePopulation() {
+    Scenario board = Populations.board();
+    ArrayList<Organism> orgs = Populations.place(board, this.population);
+    ArrayList<Organism> movers = new ArrayList<Organism>();
+    ArrayList<BoardTile> destinations = new ArrayList<BoardTile>();
+    for (Organism o : orgs) {
+      BoardTile[] passable = o.getTile().getPassableNeighbors(o.getSpecies());
+      if (passable.length > 0) {
+        movers.add(o);
+        destinations.add(passable[0]);
+      }
+    }
+    this.movers = movers.toArray(new Organism[movers.size()]);
+    this.destinations = destinations.toArray(new BoardTile[destinations.size()]);
+  }
+
+  @Benchmark
+  public int moveOrganism() {
+    int moved = 0;
+    for (int i = 0; i < this.movers.length; i++) {
+      BoardTile from = this.movers[i].getTile();
+      from.moveOrganism(this.movers[i], this.destinations[i]).moveOrganism(this.movers[i], from);
+      moved++;
+    }
+    return moved;
+  }
+}
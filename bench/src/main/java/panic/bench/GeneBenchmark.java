@@ -0,0 +1,85 @@
+package panic.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import panic.gene.SurvivalTrait;
+import panic.org.Chromosome;
+import panic.org.Organism;
+import panic.org.Species;
+
+/**
+ * Times the genetic paths over a whole population: reading the SurvivalTrait values of every
+ * Chromosome, mutating every Chromosome, and breeding every Organism with its neighbor.
+ * @author Sam Paniccia
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class GeneBenchmark {
+
+  /**
+   * The chance of mutation that the tutorial Scenario offers
+   */
+  private static final double MUTATION_CHANCE = 0.5;
+
+  private static final SurvivalTrait[] SURVIVAL_TRAITS = SurvivalTrait.values();
+
+  @Param({ "10", "1000", "100000", "1000000" })
+  public int population;
+
+  private ArrayList<Organism> orgs;
+
+  private Chromosome[] chromosomes;
+
+  @Setup
+  public void createPopulation() {
+    this.orgs = Populations.create(this.population);
+    this.chromosomes = new Chromosome[this.population];
+    for (int i = 0; i < this.population; i++) {
+      this.chromosomes[i] = new Chromosome(Species.cyanobacterium.getTraits());
+    }
+  }
+
+  @Benchmark
+  public double getSurvivalTraitValue() {
+    double sum = 0;
+    for (Chromosome c : this.chromosomes) {
+      for (SurvivalTrait t : GeneBenchmark.SURVIVAL_TRAITS) {
+        sum += c.getSurvivalTraitValue(t);
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public void mutate(Blackhole bh) {
+    for (Chromosome c : this.chromosomes) {
+      bh.consume(c.mutate(GeneBenchmark.MUTATION_CHANCE));
+    }
+  }
+
+  @Benchmark
+  public void breed(Blackhole bh) {
+    for (int i = 1; i < this.orgs.size(); i++) {
+      bh.consume(Organism.breed(this.orgs.get(i - 1), this.orgs.get(i), "offspring"));
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package panic.bench;
+
+import java.util.ArrayList;
+
+import panic.game.Father;
+import panic.game.RandomSource;
+import panic.gene.Sex;
+import panic.io.DataIO;
+import panic.org.OBactCyano;
+import panic.org.Organism;
+import panic.scenario.Scenario;
+import panic.scenario.ScenarioTutorial;
+import panic.tile.BoardTile;
+
+/**
+ * Builds the boards and populations that the benchmarks run against.<br>
+ * Like the game, the benchmarks read their data from res/, so they must be run from the
+ * project root (java -jar bench/target/benchmarks.jar).
+ * @author Sam Paniccia
+ *
+ */
+final class Populations {
+
+  /**
+   * The seed of every benchmark's random streams, so that runs are comparable
+   */
+  static final long SEED = 20171001L;
+
+  private static boolean loaded;
+
+  private Populations() {
+  }
+
+  /**
+   * To load the game data, once per benchmark JVM, and to reseed the random streams
+   */
+  static synchronized void init() {
+    if (!Populations.loaded) {
+      Father.initLogger();
+      DataIO.loadGameData();
+      Populations.loaded = true;
+    }
+    RandomSource.seed(Populations.SEED);
+  }
+
+  /**
+   * To build a fresh tutorial board
+   */
+  static Scenario board() {
+    Populations.init();
+    return new ScenarioTutorial(null);
+  }
+
+  /**
+   * To create the given number of randomly-sexed Cyanobacteria that are not on the board
+   */
+  static ArrayList<Organism> create(int population) {
+    Populations.init();
+    ArrayList<Organism> orgs = new ArrayList<Organism>(population);
+    for (int i = 0; i < population; i++) {
+      orgs.add(new OBactCyano("bench" + i, Sex.randomSex()));
+    }
+    return orgs;
+  }
+
+  /**
+   * To create the given number of randomly-sexed Cyanobacteria, each placed on a random tile of
+   * the given board that it can survive on (as SimulationEngine does)
+   */
+  static ArrayList<Organism> place(Scenario board, int population) {
+    ArrayList<Organism> orgs = Populations.create(population);
+    int numTiles = board.getNumTiles();
+    for (Organism o : orgs) {
+      BoardTile tile = board.getTile(Father.randInt(0, numTiles));
+      while (!o.placeOnTile(tile)) {
+        tile = board.getTile(Father.randInt(0, numTiles));
+      }
+      tile.addOrganism(o);
+    }
+    return orgs;
+  }
+}
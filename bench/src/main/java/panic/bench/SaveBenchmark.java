@@ -0,0 +1,74 @@
+package panic.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import panic.game.Player;
+import panic.io.DataIO;
+import panic.org.Organism;
+import panic.scenario.Scenario;
+
+/**
+ * Times writing and reading a player file through DataIO#writePlayer(Player) and
+ * DataIO#loadPlayer(String), for a Player owning the whole population.
+ * @author Sam Paniccia
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class SaveBenchmark {
+
+  /**
+   * The name of the benchmark's player, and so of its player file
+   */
+  private static final String NAME = "jmh-bench";
+
+  @Param({ "10", "1000", "100000", "1000000" })
+  public int population;
+
+  private Player player;
+
+  @Setup
+  public void createPlayer() {
+    Scenario board = Populations.board();
+    ArrayList<Organism> orgs = Populations.place(board, this.population / 2);
+    orgs.addAll(Populations.create(this.population - orgs.size()));
+    this.player = new Player(SaveBenchmark.NAME, board, 1, Populations.SEED, orgs, new BitSet());
+    DataIO.writePlayer(this.player);
+  }
+
+  @TearDown
+  public void deletePlayerFile() throws IOException {
+    Files.deleteIfExists(DataIO.getPlayerPath(SaveBenchmark.NAME));
+  }
+
+  @Benchmark
+  public void writePlayer() {
+    DataIO.writePlayer(this.player);
+  }
+
+  @Benchmark
+  public Player loadPlayer() {
+    return DataIO.loadPlayer(SaveBenchmark.NAME);
+  }
+}
@@ -0,0 +1,52 @@
+package panic.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import panic.io.DataIO;
+import panic.scenario.ScenarioTutorial;
+import panic.tile.BoardTile;
+import panic.tile.TileGrid;
+
+/**
+ * Times the parsing of the tutorial Scenario file into BoardTiles by
+ * DataIO#readTiles(String, ArrayList), and into a TileGrid alone by DataIO#readTileGrid(String).
+ * @author Sam Paniccia
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ScenarioBenchmark {
+
+  @Setup
+  public void loadGameData() {
+    Populations.init();
+  }
+
+  @Benchmark
+  public ArrayList<BoardTile> readTiles() {
+    ArrayList<BoardTile> board = new ArrayList<BoardTile>();
+    DataIO.readTiles(ScenarioTutorial.KEY, board);
+    return board;
+  }
+
+  @Benchmark
+  public TileGrid readTileGrid() {
+    return DataIO.readTileGrid(ScenarioTutorial.KEY);
+  }
+}
@@ -0,0 +1,54 @@
+package panic.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import panic.game.RandomSource;
+import panic.org.Organism;
+
+/**
+ * Times one turn of a whole placed population through Organism#nextTurn(SplittableRandom).<br>
+ * A turn kills and moves Organisms, so every measured turn starts from a freshly placed
+ * population and is timed once.
+ * @author Sam Paniccia
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class TurnBenchmark {
+
+  @Param({ "10", "1000", "100000", "1000000" })
+  public int population;
+
+  private ArrayList<Organism> orgs;
+
+  @Setup(Level.Iteration)
+  public void placePopulation() {
+    this.orgs = Populations.place(Populations.board(), this.population);
+  }
+
+  @Benchmark
+  public void nextTurn(Blackhole bh) {
+    for (int i = 0; i < this.orgs.size(); i++) {
+      bh.consume(this.orgs.get(i).nextTurn(RandomSource.forOrganism(Populations.SEED, 2, i)));
+    }
+  }
+}
@@ -1,11 +1,13 @@
 package panic.game;
 
-import java.util.Random;
+import java.util.function.Supplier;
 import java.util.logging.FileHandler;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.swing.SwingUtilities;
 
+import panic.io.AsyncLogHandler;
 import panic.io.CustomLoggerFormatter;
 
 /**
@@ -32,12 +34,6 @@ public class Father implements Runnable {
 	 */
 	public static final String GAME_VERSION = "0";
 
-	/**
-	 * A Random instance for generating random things
-	 * @param args
-	 */
-	private static Random rand = new Random();
-
 	/**
 	 * A list of instructions for the game to automatically perform at the beginning of the game
 	 * @param args
@@ -56,6 +52,36 @@ public class Father implements Runnable {
 	public static int SHOW_UNDISCOVERED_ALLELES_TRUE = 1;
 	public static int SHOW_UNDISCOVERED_ALLELES_FALSE = 0;
 
+	/**
+	 * If true, Organisms decide their turns in parallel across all cores
+	 */
+	public static int PARALLEL_TURNS = 0;
+
+	public static int PARALLEL_TURNS_TRUE = 1;
+	public static int PARALLEL_TURNS_FALSE = 0;
+
+	/**
+	 * If above 0, the board is split into chunks of this many tiles a side, and each chunk's turn
+	 * is resolved on its own worker
+	 */
+	public static int TURN_CHUNK_SIZE = 0;
+
+	/**
+	 * If true, the details of every Organism's turn are logged at the trace level
+	 */
+	public static int LOG_TRACE = 0;
+
+	public static int LOG_TRACE_TRUE = 1;
+	public static int LOG_TRACE_FALSE = 0;
+
+	/**
+	 * If true, the turn metrics are shown at the start of every turn
+	 */
+	public static int SHOW_METRICS = 0;
+
+	public static int SHOW_METRICS_TRUE = 1;
+	public static int SHOW_METRICS_FALSE = 0;
+
 	public static void main(String[] args) {
 		//DataIO.loadTileValues();
 		//DataIO.loadOrgTileTraitVals();
@@ -70,7 +96,7 @@ public class Father implements Runnable {
 
 	@Override
 	public void run() {
-		this.initLogger();
+		Father.initLogger();
 		gc = GameController.getInstance();
 		gc.init();
 		// Initialize GUI on EDT
@@ -83,13 +109,19 @@ public class Father implements Runnable {
 	/**
 	 * To give the logger custom formatting
 	 */
-	private void initLogger(){
+	public static void initLogger(){
 		try{
 			CustomLoggerFormatter format = new CustomLoggerFormatter();
 			FileHandler fh = new FileHandler("res/log/log" + 0 + ".log");
 			Father.logger.setUseParentHandlers(false);
 			fh.setFormatter(format);
-			Father.logger.addHandler(fh);
+			fh.setLevel(Level.ALL);
+			// write on a background thread so that logging never waits on the disk
+			AsyncLogHandler async = new AsyncLogHandler(fh);
+			Father.logger.addHandler(async);
+			// trace records are gated by LOG_TRACE, not by the logger's level
+			Father.logger.setLevel(Level.ALL);
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> async.close()));
 
 			Father.log("Logger initialized. Let's go!");
 		} catch (Exception e){
@@ -101,13 +133,39 @@ public class Father implements Runnable {
 	 * Get a new random integer between lo and hi
 	 */
 	public static int randInt(int lo, int hi) {
-		return (Father.rand.nextInt(hi) + lo);
+		return (RandomSource.current().nextInt(hi) + lo);
 	}
 
 	public static void log(String toLog) {
 		Father.logger.info(toLog);
 	}
 
+	/**
+	 * To determine if trace logging is turned on
+	 */
+	public static boolean isTracing() {
+		return Father.LOG_TRACE == Father.LOG_TRACE_TRUE;
+	}
+
+	/**
+	 * To log the given message at the trace level, if trace logging is turned on
+	 */
+	public static void trace(String toLog) {
+		if (Father.isTracing()) {
+			Father.logger.fine(toLog);
+		}
+	}
+
+	/**
+	 * To log the supplied message at the trace level, if trace logging is turned on. The message
+	 * is only built if it will be logged.
+	 */
+	public static void trace(Supplier<String> toLog) {
+		if (Father.isTracing()) {
+			Father.logger.fine(toLog);
+		}
+	}
+
 }
 
 
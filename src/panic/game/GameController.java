@@ -4,16 +4,23 @@ import java.awt.Graphics2D;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.Stack;
-
-import javax.swing.SwingUtilities;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import panic.gene.Allele;
 import panic.gene.Trait;
 import panic.gui.GUIHandler;
+import panic.gui.GameView;
 import panic.io.DataIO;
+import panic.io.SaveService;
+import panic.jfr.TurnCompletedEvent;
+import panic.metrics.MetricsRegistry;
+import panic.metrics.TurnMetrics;
 import panic.org.Organism;
+import panic.scenario.Scenario;
 import panic.state.GameState;
 import panic.state.StateIntro;
 import panic.state.StateViewDeaths;
@@ -38,15 +45,37 @@ public class GameController {
   private Stack<GameState> stateStack;
   
   /**
-   * A global GUIHandler for all GUI manipulation 
+   * What the user is shown everything through: the GUIHandler, or a HeadlessView
    */
-  private GUIHandler guiHandler;  
+  private GameView view;  
   
   /**
    * The Player in play
    */
   private Player player;
   
+  /**
+   * What to do when the user exits the game, or null to save and quit the program
+   */
+  private Runnable onExit;
+
+  /**
+   * The names of the Players that every hosted game is playing as, or null if this is the only
+   * game
+   */
+  private PlayerClaims claims;
+  
+  /**
+   * The name this game has claimed in this.claims, if any
+   */
+  private String claimedName;
+  
+  /**
+   * The future of this game's latest save, completed once it and every save of the same Player
+   * before it are on disk
+   */
+  private CompletableFuture<Void> lastSave;
+  
   private GameController() {}
   
   /**
@@ -57,26 +86,55 @@ public class GameController {
     return GameController.instance;
   }
   
+  /**
+   * To create a GameController of its own for one of many games hosted at once (see
+   * SessionServer), showing everything through the given view. The game data must already have
+   * been loaded.
+   * @param onExit What to do when the user exits this game, instead of quitting the program
+   * @param claims The names of the Players that every hosted game is playing as
+   */
+  static GameController newSession(GameView view, Runnable onExit, PlayerClaims claims) {
+    GameController session = new GameController();
+    session.initStates(view);
+    session.onExit = onExit;
+    session.claims = claims;
+    return session;
+  }
+  
   // initializing
   
   /**
    * To initialize this.stateStack and to load in all game data
    */
   void init() { 
+    this.init(GUIHandler.getInstance(this));
+  }
+  
+  /**
+   * To initialize this.stateStack and to load in all game data, showing everything through the
+   * given view (e.g. a HeadlessView to run without the GUI)
+   */
+  void init(GameView view) { 
+    this.initStates(view);
+    DataIO.loadGameData();
+  }
+  
+  /**
+   * To initialize this.stateStack, showing everything through the given view
+   */
+  private void initStates(GameView view) {
     this.stateStack = new Stack<GameState>();
     this.stateStack.push(new StateIntro(this));
     Father.log("Intro state pushed, but NOT loaded!");
-    DataIO.loadOrgTileTraitVals(); 
-    DataIO.loadAlleleValues();
-    guiHandler = GUIHandler.getInstance(this);
+    this.view = view;
   }
   
   /**
-   * To initialize all GUI components (through this.guiHandler)
+   * To initialize all GUI components (through the GUIHandler)
    */
   void initGUI() { 
     Father.log("Initializing GUI components...");
-    guiHandler.initGUI();
+    GUIHandler.getInstance(this).initGUI();
     Father.log("GUI initialization complete.");
   }
   
@@ -96,7 +154,7 @@ public class GameController {
    */
   public void repaint() { 
     Father.log("repainting the PlayPanel.");
-    this.guiHandler.repaint();  
+    this.view.repaint();  
   }
   
   /**
@@ -129,7 +187,7 @@ public class GameController {
    * @param toSay
    */
   public void renderTextOnPlayPanel(Graphics2D g, String[] toSay) {
-    this.guiHandler.renderTextOnPlayPanel(g, toSay);
+    this.view.renderTextOnPlayPanel(g, toSay);
   }
   
   // user input
@@ -203,10 +261,8 @@ public class GameController {
    * @param text What to show the user
    */
   public void setText(String text) {
-    SwingUtilities.invokeLater(() -> { 
-      Father.log("Text set: " + text);
-      this.guiHandler.setText(text); 
-    });
+    Father.log("Text set: " + text);
+    this.view.setText(text); 
   }
   
   /**
@@ -214,10 +270,8 @@ public class GameController {
    * @param text What to add onto the text panel
    */
   public void addText(String text) {
-    SwingUtilities.invokeLater(() -> {
-      Father.log("Text added: " + text);
-      this.guiHandler.addText(text);
-    });
+    Father.log("Text added: " + text);
+    this.view.addText(text);
   }
 
   /**
@@ -228,6 +282,9 @@ public class GameController {
     int limit = this.player.getTurnLimit();
     
     this.setText("\nIt is turn " + turn + " of " + limit + ".");
+    if (Father.SHOW_METRICS == Father.SHOW_METRICS_TRUE) {
+      this.addText("\n\n" + MetricsRegistry.getInstance().report());
+    }
   }
   
   
@@ -255,8 +312,19 @@ public class GameController {
   public void nextTurn() {
     // this can only happen during gameplay
     this.stateStack.pop();
+    TurnCompletedEvent event = new TurnCompletedEvent();
+    event.begin();
     String[] deathMessages = this.player.nextTurn(); 
+    long start = System.nanoTime();
     this.saveGame();
+    TurnMetrics.SAVE.recordSince(start);
+    event.end();
+    if (event.shouldCommit()) {
+      event.turn = this.player.getCurrentTurn();
+      event.population = this.player.getPopulation();
+      event.deaths = deathMessages.length;
+      event.commit();
+    }
     
     if (deathMessages.length != 0) {
       this.stateStack.add(new StateViewDeaths(this).acceptDeathMessages(deathMessages)); 
@@ -288,6 +356,42 @@ public class GameController {
   
   // player creation
   
+  /**
+   * To get whether the given name may be a Player's
+   */
+  public boolean isPlayerNameValid(String name) {
+    return DataIO.isValidPlayerName(name);
+  }
+  
+  /**
+   * To claim the given name for this game's Player, freeing any name it claimed before. Only
+   * games hosted alongside others claim names; any name is free to the only game.
+   * @return Whether no other hosted game is playing as a Player of the given name
+   */
+  public boolean claimPlayerName(String name) {
+    if (this.claims == null || name.equalsIgnoreCase(this.claimedName)) {
+      return true;
+    }
+    if (!this.claims.claim(name)) {
+      return false;
+    }
+    this.releasePlayerName();
+    this.claimedName = name;
+    return true;
+  }
+  
+  /**
+   * To free the name this game has claimed, if any, for other games, once this game's saves are
+   * on disk. Only this game's saves are waited on, not those of other games.
+   */
+  public void releasePlayerName() {
+    if (this.claimedName != null) {
+      this.awaitSaves();
+      this.claims.release(this.claimedName);
+      this.claimedName = null;
+    }
+  }
+  
   /**
    * To create a new Player with the given name
    */
@@ -318,10 +422,8 @@ public class GameController {
    * To change the button layout from the six intro buttons to the eight gameplay buttons
    */
   public void changeButtons() {
-    SwingUtilities.invokeLater(() -> {
-      Father.log("Changing button layout.");
-      this.guiHandler.changeButtons();
-    });
+    Father.log("Changing button layout.");
+    this.view.changeButtons();
   }
   
   
@@ -343,6 +445,13 @@ public class GameController {
     return this.player.getOrgFromName(name);
   }
   
+  /**
+   * To determine whether one of this.player's living Organisms already has the given name
+   */
+  public boolean isOrgNameTaken(String name) {
+    return this.player.isOrgNameTaken(name);
+  }
+  
   /**
    * To get this.player's Allele of the given name if it exists and has been discovered
    */
@@ -366,6 +475,17 @@ public class GameController {
   public BoardTile determineTileFromClick(int x, int y) {
     return this.player.determineTileFromClick(x, y);
   }
+  
+  /**
+   * To get every tile of the board with more than the given number of living Organisms on it,
+   * in board order
+   */
+  public BoardTile[] getTilesWithMoreThan(int numOrganisms) {
+    Scenario board = this.player.getScenario();
+    return Arrays.stream(board.getTilesWithMoreThan(numOrganisms))
+        .mapToObj(board::getTile)
+        .toArray(n -> new BoardTile[n]);
+  }
 
   // Organism delegation
   
@@ -376,6 +496,21 @@ public class GameController {
     return this.player.mutateOrganism(toMutate, chance); 
   }
   
+  /**
+   * To engineer the given Organism's Gene of the given Trait to express the given Allele
+   */
+  public void engineerOrganism(Organism toEngineer, Trait which, Allele allele) {
+    this.player.engineerOrganism(toEngineer, which, allele);
+  }
+  
+  /**
+   * To place the given Organism onto the given BoardTile
+   * @return Whether the Organism can exist on that BoardTile's terrain
+   */
+  public boolean placeOrganism(Organism toPlace, BoardTile tile) {
+    return this.player.placeOrganism(toPlace, tile);
+  }
+  
   
   // state initialization
   
@@ -393,11 +528,28 @@ public class GameController {
   }*/
   
   /**
-   * To save the current game
+   * To save the current game, in the background
+   * @return A future completed once the save is on disk
    */
-  public void saveGame() {
-    DataIO.writePlayer(this.player); 
+  public CompletableFuture<Void> saveGame() {
+    this.lastSave = SaveService.getInstance().save(this.player);
+    return this.lastSave;
   } 
+  
+  /**
+   * To wait until every save this game has requested has been written. The saves of one Player
+   * are written in order, so waiting on the latest is enough.
+   */
+  private void awaitSaves() {
+    if (this.lastSave == null) {
+      return;
+    }
+    try {
+      this.lastSave.join();
+    } catch (CompletionException e) {
+      // SaveService has logged the failure; there is nothing left to wait for
+    }
+  }
 
   /**
    * To prompt the user to save or cancel before exiting the game
@@ -408,6 +560,11 @@ public class GameController {
     if (confirm) {
       System.exit(0);
     }*/
+    if (this.onExit != null) {
+      this.onExit.run();
+      return;
+    }
+    SaveService.getInstance().flush();
     System.exit(0);
   }
 
@@ -431,64 +588,80 @@ public class GameController {
     
     Father.log("Parsing input arguments...");
     for (String arg : args) { 
-      String[] parts = arg.split("_");
-      Father.log(" - " + parts[0]);
-      switch(parts[0]) {
-      case "flag":
-        String which = "";
-        for (int i = 1; i < parts.length - 1; i++) {
-          which += "_" + parts[i] ;
-        }
-        
-        which = which.substring(1);
-        String val = parts[parts.length - 1];
-        
-        int value = Integer.valueOf(val);
-        
-        try {
-          Field f = Father.class.getDeclaredField(which);
-          f.set(null, value);
-        }
-        catch (NoSuchFieldException | SecurityException e) {
-          // TODO Auto-generated catch block
-          e.printStackTrace();
-        }
-        catch (IllegalArgumentException e) {
-          // TODO Auto-generated catch block
-          e.printStackTrace();
-        }
-        catch (IllegalAccessException e) {
-          // TODO Auto-generated catch block
-          e.printStackTrace();
-        } 
-        break;
-      case "stop":
+      if (!this.runCommand(arg)) {
         Father.log("Argument parsing complete: stop request received.");
         return;
-      case "load": 
-        this.updateGameData();
-        break;
-      case "textIn":
-        Father.log("   - " + parts[1]);
-        this.userInput(parts[1]);
-        break;
-      case "button":
-        Father.log("   - " + parts[1]);
-        this.buttonPressed(parts[1]);
-        break;
-      case "mouse":
-        int x = Integer.valueOf(parts[1]) * 48 + 100;
-        int y = Integer.valueOf(parts[2]) * 48 + 100;
-        Father.log("   - Clicked tile: " + parts[1] + ", " + parts[2]);
-        this.onMouseClick(x, y);
-        break;
-      default: 
-        Father.log("Argument parsing FAILED! " + arg);
-        throw new IllegalArgumentException("I did something wrong: " + arg);
-      } 
+      }
     }
     Father.log("Argument parsing complete: all requests handled.");
   }
+  
+  /**
+   * To run one mocked user input, as given to #parseArgs(String[])
+   * <br>flag_NAME_value, seed_value, load, textIn_text, button_name, mouse_col_row, stop
+   * @return False if the input was a request to stop, true otherwise
+   * @throws IllegalArgumentException If the input is not one of the above
+   */
+  public boolean runCommand(String arg) {
+    String[] parts = arg.split("_");
+    Father.log(" - " + parts[0]);
+    switch(parts[0]) {
+    case "flag":
+      String which = "";
+      for (int i = 1; i < parts.length - 1; i++) {
+        which += "_" + parts[i] ;
+      }
+      
+      which = which.substring(1);
+      String val = parts[parts.length - 1];
+      
+      int value = Integer.valueOf(val);
+      
+      try {
+        Field f = Father.class.getDeclaredField(which);
+        f.set(null, value);
+      }
+      catch (NoSuchFieldException | SecurityException e) {
+        // TODO Auto-generated catch block
+        e.printStackTrace();
+      }
+      catch (IllegalArgumentException e) {
+        // TODO Auto-generated catch block
+        e.printStackTrace();
+      }
+      catch (IllegalAccessException e) {
+        // TODO Auto-generated catch block
+        e.printStackTrace();
+      } 
+      break;
+    case "seed":
+      RandomSource.seed(Long.valueOf(parts[1]));
+      break;
+    case "stop":
+      return false;
+    case "load": 
+      this.updateGameData();
+      break;
+    case "textIn":
+      Father.log("   - " + parts[1]);
+      this.userInput(parts[1]);
+      break;
+    case "button":
+      Father.log("   - " + parts[1]);
+      this.buttonPressed(parts[1]);
+      break;
+    case "mouse":
+      int x = Integer.valueOf(parts[1]) * 48 + 100;
+      int y = Integer.valueOf(parts[2]) * 48 + 100;
+      Father.log("   - Clicked tile: " + parts[1] + ", " + parts[2]);
+      this.onMouseClick(x, y);
+      break;
+    default: 
+      Father.log("Argument parsing FAILED! " + arg);
+      throw new IllegalArgumentException("I did something wrong: " + arg);
+    } 
+    return true;
+  }
 
   /**
    * To reload all gamedata files through exceltotext.py
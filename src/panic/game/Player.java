@@ -1,18 +1,26 @@
 package panic.game;
 
 import java.awt.Graphics2D;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map.Entry;
+import java.util.List;
 import java.util.Optional;
 
 import panic.gene.Allele;
 import panic.gene.Trait;
+import panic.io.PlayerJournal;
+import panic.metrics.TurnMetrics;
 import panic.org.Organism;
+import panic.org.TurnDecision;
 import panic.scenario.Scenario;
 import panic.scenario.ScenarioTutorial;
+import panic.sim.ChunkedTurnResolver;
+import panic.sim.TurnResolver;
 import panic.tile.BoardTile;
 
 public class Player implements Serializable {  
@@ -39,36 +47,112 @@ public class Player implements Serializable {
   private Scenario currentScenario;
   
   /**
-   * All Alleles and whether or not the player has discovered them
+   * The Allele#index() of every Allele the player has discovered
+   */
+  private BitSet discoveredAlleles;
+  
+  /**
+   * All Alleles and whether or not the player has discovered them; only set while reading a
+   * Player serialized before discoveries were kept in this.discoveredAlleles
    */
   private HashMap<Allele, Boolean> discovered;
+  
+  /**
+   * The seed from which every turn's random streams are derived
+   */
+  private long seed;
+  
+  /**
+   * The sequence number of the last change made to this Player; each change recorded in its
+   * journal carries the next one
+   */
+  private long journalSequence;
+  
+  /**
+   * The journal that changes to this Player are recorded in, or null if they are not recorded
+   */
+  private transient PlayerJournal journal;
+  
+  /**
+   * Every living Organism by name, or null if not yet built
+   */
+  private transient HashMap<String, Organism> livingByName;
 
   public Player(String name, GameController gc) { 
     this.currentTurn = 1;
+    this.seed = RandomSource.current().nextLong();
     this.name = name;
     this.orgs = new ArrayList<Organism>(); 
     this.currentScenario = new ScenarioTutorial(gc);
-    this.discovered = new LinkedHashMap<Allele, Boolean>();
+    this.discoveredAlleles = new BitSet(Trait.getTotalAlleleNumber());
     this.initDiscovered(); 
   } 
   
   /**
-   * To initialize this.discovered to contain every Allele paired with false
+   * To recreate a Player (e.g. from a save file)
+   * @param orgs Every Organism the Player owned; placed ones must already be on their tiles
+   * @param discovered The Allele#index() of every Allele the Player has discovered
+   */
+  public Player(String name, Scenario scenario, int currentTurn, long seed, 
+      List<Organism> orgs, BitSet discovered) {
+    this.currentTurn = currentTurn;
+    this.seed = seed;
+    this.name = name;
+    this.orgs = new ArrayList<Organism>(orgs);
+    this.currentScenario = scenario;
+    this.discoveredAlleles = (BitSet) discovered.clone();
+    this.initDiscovered();
+    this.indexOrganisms();
+  }
+  
+  /**
+   * To mark the only Allele of every single-Allele Trait as discovered
    */
   private void initDiscovered() {
     for (Trait t : Trait.values()) {
       Allele[] alleles = t.getAlleles();
       if (alleles.length == 1) {
-        this.discovered.put(alleles[0], true);
-      }
-      else {
-        for (Allele a : alleles) {
-          this.discovered.put(a, false);
-        }
+        this.discoveredAlleles.set(alleles[0].index());
       }
     }
   }
   
+  /**
+   * To read a serialized Player, moving the discoveries of one serialized before 
+   * this.discoveredAlleles existed into it
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    if (this.discovered != null) {
+      this.discoveredAlleles = new BitSet(Trait.getTotalAlleleNumber());
+      this.discovered.forEach((a, isFound) -> this.discoveredAlleles.set(a.index(), isFound));
+      this.discovered = null;
+    }
+    this.indexOrganisms();
+  }
+  
+  /**
+   * To tell every Organism its index among this Player's Organisms, by which its changes are
+   * journaled
+   */
+  private void indexOrganisms() {
+    for (int i = 0; i < this.orgs.size(); i++) {
+      this.orgs.get(i).setPlayerIndex(i);
+    }
+  }
+  
+  /**
+   * To get the index of the given Organism among this Player's Organisms, without searching
+   * @throws IllegalArgumentException If it is not this Player's
+   */
+  private int indexOf(Organism o) {
+    int index = o.getPlayerIndex();
+    if (index < 0 || index >= this.orgs.size() || this.orgs.get(index) != o) {
+      throw new IllegalArgumentException(o.getName() + " is not " + this.name + "'s.");
+    }
+    return index;
+  }
+  
   // getters and setters
   
   /**
@@ -85,25 +169,134 @@ public class Player implements Serializable {
     return this.currentTurn;
   }
 
+  /**
+   * To retrieve the seed from which every turn's random streams are derived
+   */
+  public long getSeed() {
+    return this.seed;
+  }
+  
+  /**
+   * To retrieve this Player's current Scenario
+   */
+  public Scenario getScenario() {
+    return this.currentScenario;
+  }
+  
+  /**
+   * To retrieve the number of this Player's Organisms that are alive
+   */
+  public int getPopulation() {
+    int alive = 0;
+    for (Organism o : this.orgs) {
+      if (o.isAlive()) {
+        alive++;
+      }
+    }
+    return alive;
+  }
+  
+  /**
+   * To retrieve every Organism this Player owns, in the order they were added
+   */
+  public List<Organism> getOrganisms() {
+    return Collections.unmodifiableList(this.orgs);
+  }
+  
+  /**
+   * To retrieve the Allele#index() of every Allele this Player has discovered
+   */
+  public BitSet getDiscoveredAlleles() {
+    return (BitSet) this.discoveredAlleles.clone();
+  }
+  
+  /**
+   * To determine whether this Player has discovered the given Allele
+   */
+  public boolean isDiscovered(Allele which) {
+    return this.discoveredAlleles.get(which.index());
+  }
+
   /**
    * To return the Organism of the given name
    */
   public Optional<Organism> getOrgFromName(String name) { 
-    return this.orgs.stream()
-        .filter(o -> o.getName().equals(name) && o.isAlive())
-        .findFirst();
+    HashMap<String, Organism> living = this.getLivingByName();
+    Organism found = living.get(name);
+    if (found != null && !found.isAlive()) {
+      // it died somewhere this index was not told about, e.g. while replaying the journal
+      living.remove(name);
+      return Optional.empty();
+    }
+    return Optional.ofNullable(found);
+  }
+  
+  /**
+   * To determine whether a living Organism already has the given name
+   */
+  public boolean isOrgNameTaken(String name) {
+    return this.getOrgFromName(name).isPresent();
+  }
+  
+  /**
+   * To get the index of living Organisms by name, building it if need be
+   */
+  private HashMap<String, Organism> getLivingByName() {
+    if (this.livingByName == null) {
+      this.livingByName = new HashMap<String, Organism>();
+      for (Organism o : this.orgs) {
+        if (o.isAlive()) {
+          this.livingByName.putIfAbsent(o.getName(), o);
+        }
+      }
+    }
+    return this.livingByName;
   }
   
   /**
    * To change to the next turn
    */
   public String[] nextTurn() {
+    long start = System.nanoTime();
     this.currentTurn++;
-    return this.orgs.stream()
-        .map(o -> o.nextTurn())
-        .filter(o -> o.isPresent())
-        .map(o -> o.get())
-        .toArray(s -> new String[s]);  
+    boolean parallel = Father.PARALLEL_TURNS == Father.PARALLEL_TURNS_TRUE;
+    TurnResolver resolver = (Father.TURN_CHUNK_SIZE > 0)
+        ? new ChunkedTurnResolver(this.seed, this.currentScenario, Father.TURN_CHUNK_SIZE)
+        : new TurnResolver(this.seed, parallel);
+    String[] deathMessages = resolver
+        .resolve(this.orgs, this.currentTurn, (i, decision) -> this.recordTurnOf(i, decision));
+    long sequence = this.nextSequence();
+    if (this.journal != null) {
+      this.journal.recordTurn(sequence, this.currentTurn);
+    }
+    TurnMetrics.TURN.recordSince(start);
+    return deathMessages;
+  }
+  
+  /**
+   * To record the applied turn decision of the Organism at the given index
+   */
+  private void recordTurnOf(int index, TurnDecision decision) {
+    if (decision.diedOf() != null) {
+      this.getLivingByName().remove(this.orgs.get(index).getName());
+    }
+    long sequence = this.nextSequence();
+    if (this.journal == null) {
+      return;
+    }
+    if (decision.diedOf() != null) {
+      this.journal.recordDeath(sequence, index, decision.diedOf());
+    } else {
+      this.journal.recordMove(sequence, index, 
+          this.currentScenario.getTileIndex(decision.movedTo()));
+    }
+  }
+  
+  /**
+   * To set this Player's current turn (e.g. when replaying its journal)
+   */
+  public void restoreTurn(int turn) {
+    this.currentTurn = turn;
   }
 
 
@@ -119,10 +312,71 @@ public class Player implements Serializable {
 
   /**
    * To add the given Organism to this Player's list of Organisms
-   * @param toAdd
+   * @throws IllegalArgumentException If a living Organism already has its name
    */
   public void addOrganism(Organism toAdd) {
+    if (toAdd.isAlive()) {
+      if (this.isOrgNameTaken(toAdd.getName())) {
+        throw new IllegalArgumentException(
+            "A living Organism is already named " + toAdd.getName() + ".");
+      }
+      this.getLivingByName().put(toAdd.getName(), toAdd);
+    }
+    toAdd.setPlayerIndex(this.orgs.size());
     this.orgs.add(toAdd);
+    long sequence = this.nextSequence();
+    if (this.journal != null) {
+      this.journal.recordOrganism(sequence, toAdd);
+    }
+  }
+  
+  /**
+   * To place the given Organism onto the given BoardTile, if it can exist there
+   * @return Whether the Organism was placed
+   */
+  public boolean placeOrganism(Organism toPlace, BoardTile tile) {
+    if (!toPlace.placeOnTile(tile)) {
+      return false;
+    }
+    tile.addOrganism(toPlace);
+    long sequence = this.nextSequence();
+    if (this.journal != null) {
+      this.journal.recordPlacement(sequence, this.indexOf(toPlace), 
+          this.currentScenario.getTileIndex(tile));
+    }
+    return true;
+  }
+  
+  // journaling
+  
+  /**
+   * To take the sequence number of the next change to this Player
+   */
+  private long nextSequence() {
+    return ++this.journalSequence;
+  }
+  
+  public long getJournalSequence() {
+    return this.journalSequence;
+  }
+  
+  /**
+   * To set the sequence number of the last change made to this Player (e.g. once a journaled
+   * change has been replayed)
+   */
+  public void setJournalSequence(long sequence) {
+    this.journalSequence = sequence;
+  }
+  
+  public PlayerJournal getJournal() {
+    return this.journal;
+  }
+  
+  /**
+   * To start recording every change to this Player in the given journal
+   */
+  public void setJournal(PlayerJournal journal) {
+    this.journal = journal;
   }
   /**
    * To return the mutation factor of this player's Scenario 
@@ -156,8 +410,8 @@ public class Player implements Serializable {
     int yPos = 50;  
     for (Organism o : this.orgs) {
       if (o.isAlive()) {
-        yPos += o.draw(g, xPos, yPos, this.discovered);
-        Father.log(o.toString()); 
+        yPos += o.draw(g, xPos, yPos, this.discoveredAlleles);
+        Father.trace(() -> o.toString());
       }
     }
     
@@ -197,25 +451,50 @@ public class Player implements Serializable {
     Optional<Allele> maybeMutated = toMutate.mutate(chance);
     if (maybeMutated.isPresent()) {
       Allele mutated = maybeMutated.get();
-      this.discovered.put(mutated, true);
+      this.discover(mutated);
+      long sequence = this.nextSequence();
+      if (this.journal != null) {
+        this.journal.recordMutation(sequence, this.indexOf(toMutate), mutated);
+      }
       return true;
     }
     return false;
   } 
   
+  /**
+   * To engineer the given Organism's Gene of the given Trait to express the given Allele. The
+   * change is journaled as a mutation to that Allele, which replays the same way.
+   */
+  public void engineerOrganism(Organism toEngineer, Trait which, Allele allele) {
+    toEngineer.setGene(which, allele);
+    this.discover(allele);
+    long sequence = this.nextSequence();
+    if (this.journal != null) {
+      this.journal.recordMutation(sequence, this.indexOf(toEngineer), allele);
+    }
+  }
+  
+  /**
+   * To record that the user has discovered the given Allele
+   */
+  public void discover(Allele which) {
+    this.discoveredAlleles.set(which.index());
+  }
+  
   /**
    * To return a list of Strings representing the Player's knowledge of each Allele
-   * in this.discovered (returns the allele's name if the player has discovered it, or
+   * of the given Trait (returns the allele's name if the player has discovered it, or
    * question marks if the player has not.
    * @param which
    * @return
    */
   public String[] getStringRepOfDiscoveredAlleles(Trait which) { 
-    return this.discovered.entrySet().stream()
-        .filter(e -> e.getKey().whichTrait().equals(which))
-        //.sorted((a, b) -> a.getKey().position() - b.getKey().position())
-        .map((Entry<Allele, Boolean> e) -> this.getStringRepOfAllele(e.getKey()))  
-        .toArray(String[]::new);
+    Allele[] alleles = which.getAlleles();
+    String[] reps = new String[alleles.length];
+    for (int i = 0; i < alleles.length; i++) {
+      reps[i] = this.getStringRepOfAllele(alleles[i]);
+    }
+    return reps;
   }
   
   /**
@@ -225,17 +504,16 @@ public class Player implements Serializable {
     if (Father.SHOW_UNDISCOVERED_ALLELES == Father.SHOW_UNDISCOVERED_ALLELES_TRUE) { 
       return which.getStringRepresentation();
     } else {
-      return this.discovered.get(which) ? which.toString() : "???"; 
+      return this.isDiscovered(which) ? which.toString() : "???"; 
     }
   } 
 
   public Optional<Allele> getAlleleFromNameIfDiscovered(String name) {
-    return this.discovered.entrySet().stream()
-        .filter(e -> e.getKey().getStringRepresentation().equals(name))
-        .filter(e -> e.getValue())
-        .map(e -> e.getKey())
-        .findFirst();
+    for (Allele a : Trait.getAllelesFromName(name)) {
+      if (this.isDiscovered(a)) {
+        return Optional.of(a);
+      }
+    }
+    return Optional.empty();
   }
 }
-
-
@@ -0,0 +1,43 @@
+package panic.game;
+
+import java.util.HashSet;
+import java.util.Locale;
+
+/**
+ * Keeps the names of the Players that the games hosted at once are playing as, so that no two
+ * games ever load or create the same Player, and so never write the same player file and
+ * journal.<br>
+ * Names are compared ignoring case, since the player files of two names that differ only in
+ * case are the same file on some file systems.
+ * @author Sam Paniccia
+ *
+ */
+class PlayerClaims {
+
+  /**
+   * The claimed names, in lower case
+   */
+  private final HashSet<String> claimed = new HashSet<String>();
+
+  /**
+   * To claim the given name for one game
+   * @return Whether the name was free, and so is now claimed
+   */
+  synchronized boolean claim(String name) {
+    return this.claimed.add(name.toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * To free the given name, claimed before, for other games
+   */
+  synchronized void release(String name) {
+    this.claimed.remove(name.toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * To get whether the given name is claimed now
+   */
+  synchronized boolean isClaimed(String name) {
+    return this.claimed.contains(name.toLowerCase(Locale.ROOT));
+  }
+}
@@ -0,0 +1,113 @@
+package panic.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * The single source of randomness for a run of the game.<br>
+ * It is seeded once per run. Each thread that asks for randomness gets its own SplittableRandom
+ * stream split from that seed, so no stream is ever shared between threads. Turn resolution
+ * instead derives one stream per Organism per turn from the Player's seed, so turns replay
+ * exactly no matter how many threads resolve them.
+ * @author Sam Paniccia
+ *
+ */
+public final class RandomSource {
+
+  /**
+   * The seed of the current run
+   */
+  private static long seed;
+
+  /**
+   * The stream from which every thread's stream is split
+   */
+  private static SplittableRandom root;
+
+  /**
+   * Incremented on every reseed so that threads drop streams split from an old seed
+   */
+  private static volatile int generation;
+
+  /**
+   * Each thread's own stream
+   */
+  private static final ThreadLocal<ThreadStream> streams = new ThreadLocal<ThreadStream>();
+
+  static {
+    RandomSource.seed(System.nanoTime());
+  }
+
+  private RandomSource() {}
+
+  /**
+   * To restart every stream from the given seed
+   */
+  public static synchronized void seed(long seed) {
+    Father.log("Seeding random streams: " + seed);
+    RandomSource.seed = seed;
+    RandomSource.root = new SplittableRandom(seed);
+    RandomSource.generation++;
+  }
+
+  /**
+   * To retrieve the seed of the current run, so that the run may be replayed
+   */
+  public static synchronized long getSeed() {
+    return RandomSource.seed;
+  }
+
+  /**
+   * To retrieve the calling thread's stream
+   */
+  public static SplittableRandom current() {
+    ThreadStream stream = RandomSource.streams.get();
+    int gen = RandomSource.generation;
+    if (stream == null || stream.generation != gen) {
+      stream = new ThreadStream(gen, RandomSource.split());
+      RandomSource.streams.set(stream);
+    }
+    return stream.random;
+  }
+
+  private static synchronized SplittableRandom split() {
+    return RandomSource.root.split();
+  }
+
+  /**
+   * To create the stream of the Organism at the given population index for the given turn
+   * @param seed The seed of the population's owner
+   */
+  public static SplittableRandom forOrganism(long seed, int turn, int index) {
+    long z = seed + (((long) turn << 32) | (index & 0xffffffffL)) * 0x9e3779b97f4a7c15L;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return new SplittableRandom(z ^ (z >>> 31));
+  }
+
+  /**
+   * To draw a normally-distributed double (mean 0, standard deviation 1) from the given stream,
+   * using the polar method
+   */
+  public static double nextGaussian(SplittableRandom rand) {
+    double v1, v2, s;
+    do {
+      v1 = 2 * rand.nextDouble() - 1;
+      v2 = 2 * rand.nextDouble() - 1;
+      s = v1 * v1 + v2 * v2;
+    } while (s >= 1 || s == 0);
+    return v1 * StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+  }
+
+  /**
+   * A thread's stream and the seed generation it was split from
+   */
+  private static final class ThreadStream {
+    private final int generation;
+    private final SplittableRandom random;
+
+    ThreadStream(int generation, SplittableRandom random) {
+      this.generation = generation;
+      this.random = random;
+    }
+  }
+}
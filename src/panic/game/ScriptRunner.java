@@ -0,0 +1,119 @@
+package panic.game;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import panic.gui.HeadlessView;
+import panic.io.SaveService;
+import panic.metrics.Histogram;
+import panic.metrics.MetricsRegistry;
+
+/**
+ * Runs scripts of mocked user inputs against the game's states with no GUI and no waiting, e.g.
+ * to replay a recorded session as a load test or to reproduce a bug at full speed.<br>
+ * A script has one command per line, in the form GameController#runCommand(String) takes
+ * (e.g. button_New, textIn_moose, mouse_3_4); blank lines and lines starting with # are
+ * skipped, and stop ends the script. The time each command takes is recorded in the
+ * MetricsRegistry as script.&lt;command&gt; (e.g. script.button).
+ * @author Sam Paniccia
+ *
+ */
+public class ScriptRunner {
+
+  private final GameController gc;
+
+  /**
+   * Whether to print the time of every command, rather than only the summary
+   */
+  private final boolean verbose;
+
+  private long commandsRun;
+
+  public ScriptRunner(GameController gc, boolean verbose) {
+    this.gc = gc;
+    this.verbose = verbose;
+  }
+
+  /**
+   * To run the given script
+   * @param source The name of the script, for messages
+   * @return False if the script asked to stop, true otherwise
+   * @throws IllegalArgumentException If a line of the script is not a command
+   */
+  public boolean run(BufferedReader script, String source) throws IOException {
+    String line;
+    int lineNum = 0;
+    while ((line = script.readLine()) != null) {
+      lineNum++;
+      String command = line.trim();
+      if (command.isEmpty() || command.startsWith("#")) {
+        continue;
+      }
+
+      Histogram latency = MetricsRegistry.getInstance().timer("script." + command.split("_")[0]);
+      long start = System.nanoTime();
+      boolean keepGoing;
+      try {
+        keepGoing = this.gc.runCommand(command);
+      } catch (RuntimeException e) {
+        throw new IllegalArgumentException(source + ":" + lineNum + ": " + command, e);
+      }
+      long elapsed = System.nanoTime() - start;
+      latency.record(elapsed);
+      this.commandsRun++;
+
+      if (this.verbose) {
+        System.out.printf("%10.3fms  %s:%d  %s%n", elapsed / 1e6, source, lineNum, command);
+      }
+      if (!keepGoing) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public long getCommandsRun() {
+    return this.commandsRun;
+  }
+
+  /**
+   * To run the given scripts, in order, against a headless game and to report their timings
+   * @param args [-v] [script files...]; with no files, the script is read from standard input
+   */
+  public static void main(String[] args) throws IOException {
+    boolean verbose = args.length > 0 && args[0].equals("-v");
+    int first = verbose ? 1 : 0;
+
+    Father.initLogger();
+    GameController gc = GameController.getInstance();
+    HeadlessView view = new HeadlessView();
+    gc.init(view);
+    gc.showIntro();
+    ScriptRunner runner = new ScriptRunner(gc, verbose);
+
+    long start = System.nanoTime();
+    if (first == args.length) {
+      runner.run(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)),
+          "stdin");
+    }
+    for (int i = first; i < args.length; i++) {
+      try (BufferedReader script = Files.newBufferedReader(Paths.get(args[i]))) {
+        if (!runner.run(script, args[i])) {
+          break;
+        }
+      }
+    }
+    SaveService.getInstance().flush();
+    long elapsed = System.nanoTime() - start;
+
+    System.out.printf("Commands: %d in %.3fms%n", runner.getCommandsRun(), elapsed / 1e6);
+    System.out.print(MetricsRegistry.getInstance().report());
+    if (verbose) {
+      System.out.println("Last text shown:" + view.getText());
+    }
+  }
+}
@@ -0,0 +1,236 @@
+package panic.game;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import panic.gui.HeadlessView;
+import panic.io.DataIO;
+import panic.io.SaveService;
+import panic.metrics.Counter;
+import panic.metrics.Histogram;
+import panic.metrics.MetricsRegistry;
+
+/**
+ * Hosts many games at once on one JVM, one per connection, over a line protocol on the loopback
+ * interface.<br>
+ * Each connection is a session with a GameController and HeadlessView of its own, run on a
+ * thread of its own: a virtual thread where the JVM has them, so that an idle session costs
+ * only its game and a few buffers, or a platform thread where it does not.<br>
+ * The client sends one command per line, in the form GameController#runCommand(String) takes
+ * (e.g. button_New, textIn_moose, mouse_3_4). After each command the server sends back the text
+ * the game is showing, followed by a line holding only a period; text lines that start with a
+ * period have another period put in front of them. Commands that would change every session's
+ * game (flag, seed and load) are refused. stop, the Exit button, or closing the connection ends
+ * the session.<br>
+ * No two sessions may play as the same Player at once: a session claims its Player's name when
+ * it creates or loads the Player, and frees it once the session has ended and its saves are
+ * written.
+ * @author Sam Paniccia
+ *
+ */
+public class SessionServer {
+
+  /**
+   * The kinds of command that change the whole program rather than one game
+   */
+  private static final HashSet<String> REFUSED =
+      new HashSet<String>(Arrays.asList("flag", "seed", "load"));
+
+  /**
+   * The size of each session's read and write buffers, in chars
+   */
+  private static final int BUFFER_SIZE = 512;
+
+  private static final Counter SESSIONS_OPENED =
+      MetricsRegistry.getInstance().counter("sessions.opened");
+  private static final Counter SESSIONS_CLOSED =
+      MetricsRegistry.getInstance().counter("sessions.closed");
+
+  private final ServerSocket server;
+
+  /**
+   * Creates the thread of each session
+   */
+  private final ThreadFactory sessionThreads;
+
+  /**
+   * The number of sessions open now
+   */
+  private final AtomicInteger open;
+
+  /**
+   * The names of the Players that the sessions are playing as
+   */
+  private final PlayerClaims claims;
+
+  /**
+   * @param port The port to listen on, or 0 for any free port
+   */
+  public SessionServer(int port) throws IOException {
+    this.server = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+    this.sessionThreads = SessionServer.createThreadFactory("session-");
+    this.open = new AtomicInteger();
+    this.claims = new PlayerClaims();
+  }
+
+  /**
+   * To create a factory of virtual threads if the JVM has them (Java 21 and later), or of
+   * daemon platform threads if it does not. Virtual threads are found by reflection, so that
+   * the game still builds for older JVMs.
+   * @param prefix The prefix of each thread's name, to which a count is added
+   */
+  static ThreadFactory createThreadFactory(String prefix) {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builder = builderClass.getMethod("name", String.class, long.class)
+          .invoke(builder, prefix, 0L);
+      Father.log("Sessions will run on virtual threads.");
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (NoSuchMethodException | ClassNotFoundException | IllegalAccessException
+        | InvocationTargetException e) {
+      Father.log("Virtual threads are not available; sessions will run on platform threads.");
+      AtomicInteger count = new AtomicInteger();
+      return r -> {
+        Thread t = new Thread(r, prefix + count.getAndIncrement());
+        t.setDaemon(true);
+        return t;
+      };
+    }
+  }
+
+  /**
+   * To accept connections until the server is closed, starting a session for each
+   */
+  public void serve() throws IOException {
+    while (!this.server.isClosed()) {
+      Socket client = this.server.accept();
+      this.sessionThreads.newThread(() -> this.runSession(client)).start();
+    }
+  }
+
+  /**
+   * To run the session of the given connection until it ends (on the session's thread)
+   */
+  private void runSession(Socket client) {
+    SESSIONS_OPENED.increment();
+    this.open.incrementAndGet();
+    boolean[] exited = { false };
+    HeadlessView view = new HeadlessView();
+    GameController gc = GameController.newSession(view, () -> exited[0] = true, this.claims);
+    try (Socket socket = client;
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+            StandardCharsets.UTF_8), SessionServer.BUFFER_SIZE);
+        Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(),
+            StandardCharsets.UTF_8), SessionServer.BUFFER_SIZE)) {
+      gc.showIntro();
+      SessionServer.reply(out, view.getText());
+
+      String line;
+      while (!exited[0] && (line = in.readLine()) != null) {
+        String command = line.trim();
+        if (command.isEmpty()) {
+          continue;
+        }
+        String kind = command.split("_")[0];
+        if (SessionServer.REFUSED.contains(kind)) {
+          SessionServer.reply(out, "Refused: " + kind + " would change every game.");
+          continue;
+        }
+
+        Histogram latency = MetricsRegistry.getInstance().timer("session." + kind);
+        long start = System.nanoTime();
+        boolean keepGoing;
+        try {
+          keepGoing = gc.runCommand(command);
+        } catch (RuntimeException e) {
+          SessionServer.reply(out, "Failed: " + command + ": " + e);
+          continue;
+        }
+        latency.recordSince(start);
+        if (!keepGoing) {
+          break;
+        }
+        SessionServer.reply(out, view.getText());
+      }
+    } catch (IOException e) {
+      Father.log("Session FAILED! " + e.getMessage());
+    } finally {
+      // waits on this session's saves, so that the next session to claim this Player finds them
+      gc.releasePlayerName();
+      this.open.decrementAndGet();
+      SESSIONS_CLOSED.increment();
+    }
+  }
+
+  /**
+   * To send the given text, dot-stuffed, and the line that ends every reply
+   */
+  private static void reply(Writer out, String text) throws IOException {
+    for (String line : text.split("\n", -1)) {
+      if (line.startsWith(".")) {
+        out.write('.');
+      }
+      out.write(line);
+      out.write('\n');
+    }
+    out.write(".\n");
+    out.flush();
+  }
+
+  /**
+   * To get the port this server is listening on
+   */
+  public int getPort() {
+    return this.server.getLocalPort();
+  }
+
+  /**
+   * To get the number of sessions open now
+   */
+  public int getOpenSessions() {
+    return this.open.get();
+  }
+
+  /**
+   * To stop accepting connections. Open sessions carry on until they end.
+   */
+  public void close() throws IOException {
+    this.server.close();
+  }
+
+  /**
+   * To host games on the loopback interface until the program is stopped
+   * @param args [port]
+   */
+  public static void main(String[] args) throws IOException {
+    int port = args.length > 0 ? Integer.valueOf(args[0]) : 0;
+
+    Father.initLogger();
+    DataIO.loadGameData();
+    SessionServer server = new SessionServer(port);
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> SaveService.getInstance().flush()));
+    System.out.println("Hosting games on " + InetAddress.getLoopbackAddress().getHostAddress()
+        + ":" + server.getPort());
+    try {
+      server.serve();
+    } catch (IOException e) {
+      if (!server.server.isClosed()) {
+        throw e;
+      }
+    }
+  }
+}
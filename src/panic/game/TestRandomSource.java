@@ -0,0 +1,53 @@
+package panic.game;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import panic.gene.Sex;
+import panic.io.DataIO;
+import panic.org.OBactCyano;
+import panic.org.Organism;
+
+public class TestRandomSource {
+
+  @BeforeClass
+  public static void init() {
+    DataIO.loadGameData();
+  }
+  
+  /**
+   * To create, breed and mutate some Organisms and to describe the result
+   */
+  private String playSomeActions() {
+    Organism one = new OBactCyano("one", Sex.randomSex());
+    Organism two = new OBactCyano("two", Sex.randomSex());
+    String s = one.toString() + two.toString();
+    for (int i = 0; i < 10; i++) {
+      Organism child = Organism.breed(one, two, "child" + i);
+      child.mutate(1);
+      s += child.toString();
+    }
+    return s;
+  }
+  
+  @Test
+  public void testSameSeedReplays() {
+    RandomSource.seed(42);
+    String first = this.playSomeActions();
+    RandomSource.seed(42);
+    String second = this.playSomeActions();
+    assertEquals(first, second);
+  }
+  
+  @Test
+  public void testOrganismStreamsAreIndependentOfThreads() throws InterruptedException {
+    long expected = RandomSource.forOrganism(7, 3, 11).nextLong();
+    long[] other = new long[1];
+    Thread t = new Thread(() -> other[0] = RandomSource.forOrganism(7, 3, 11).nextLong());
+    t.start();
+    t.join();
+    assertEquals(expected, other[0]);
+  }
+}
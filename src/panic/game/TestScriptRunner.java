@@ -0,0 +1,126 @@
+package panic.game;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import panic.gui.HeadlessView;
+import panic.io.DataIO;
+import panic.io.SaveService;
+import panic.tile.BoardTile;
+
+public class TestScriptRunner {
+
+  /**
+   * The name of the Player the scripts create, whose files are deleted after each test
+   */
+  private static final String NAME = "scriptTest";
+
+  private HeadlessView view;
+
+  private GameController gc;
+
+  private ScriptRunner runner;
+
+  @BeforeClass
+  public static void init() {
+    DataIO.loadGameDataFromText();
+  }
+
+  @Before
+  public void newGame() {
+    this.view = new HeadlessView();
+    this.gc = GameController.newSession(this.view, () -> { }, null);
+    this.gc.showIntro();
+    this.runner = new ScriptRunner(this.gc, false);
+  }
+
+  @After
+  public void deletePlayer() throws Exception {
+    SaveService.getInstance().flush();
+    Files.deleteIfExists(DataIO.getPlayerPath(NAME));
+    Files.deleteIfExists(DataIO.getJournalPath(NAME));
+  }
+
+  private boolean run(String source, String... lines) throws Exception {
+    return this.runner.run(new BufferedReader(new StringReader(String.join("\n", lines))), source);
+  }
+
+  @Test
+  public void testScriptPlaysGame() throws Exception {
+    boolean finished = this.run("place.txt",
+        "# a new game, placing one of two Organisms",
+        "seed_7",
+        "button_New",
+        "textIn_" + NAME,
+        "",
+        "textIn_first",
+        "textIn_second",
+        "button_Start",
+        "button_Place",
+        "textIn_first",
+        "mouse_3_3");
+    assertTrue(finished);
+    assertEquals(9, this.runner.getCommandsRun());
+    assertTrue(this.view.getText().contains("Placement successful!"));
+
+    BoardTile[] occupied = this.gc.getTilesWithMoreThan(0);
+    assertEquals(1, occupied.length);
+    assertArrayEquals(new String[] { "first" }, occupied[0].getOrgNamesOnTile());
+    assertTrue(this.gc.isOrgNameTaken("second"));
+
+    // ending the turn saves it
+    assertTrue(this.run("turn.txt", "button_Back"));
+    SaveService.getInstance().flush();
+    Player saved = DataIO.loadPlayer(NAME);
+    // games start on turn 1
+    assertEquals(2, saved.getCurrentTurn());
+    assertEquals(2, saved.getOrganisms().size());
+  }
+
+  @Test
+  public void testBadLineIsReportedWithItsPlace() throws Exception {
+    try {
+      this.run("bad.txt",
+          "button_New",
+          "# the next line is not a command",
+          "bogus_command",
+          "button_Back");
+      fail("bogus_command ran");
+    } catch (IllegalArgumentException e) {
+      assertEquals("bad.txt:3: bogus_command", e.getMessage());
+    }
+    assertEquals(1, this.runner.getCommandsRun());
+
+    try {
+      this.run("mouse.txt", "mouse_three_4");
+      fail("mouse_three_4 ran");
+    } catch (IllegalArgumentException e) {
+      assertEquals("mouse.txt:1: mouse_three_4", e.getMessage());
+      assertTrue(e.getCause() instanceof NumberFormatException);
+    }
+  }
+
+  @Test
+  public void testStopEndsScript() throws Exception {
+    boolean finished = this.run("stop.txt",
+        "button_New",
+        "stop",
+        "textIn_" + NAME);
+    assertFalse(finished);
+    assertEquals(2, this.runner.getCommandsRun());
+    assertTrue(this.view.getText().contains("What is your name?"));
+    assertFalse(Files.exists(DataIO.getPlayerPath(NAME)));
+  }
+}
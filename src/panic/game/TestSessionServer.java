@@ -0,0 +1,224 @@
+package panic.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import panic.io.DataIO;
+import panic.io.SaveService;
+
+public class TestSessionServer {
+
+  /**
+   * The names of the Players these tests create, whose files are deleted after each test
+   */
+  private static final String[] NAMES = { "sessionTestA", "sessionTestB", "sessionTestC" };
+
+  private SessionServer server;
+
+  @BeforeClass
+  public static void init() {
+    DataIO.loadGameDataFromText();
+  }
+
+  @Before
+  public void startServer() throws IOException {
+    this.server = new SessionServer(0);
+    Thread serving = new Thread(() -> {
+      try {
+        this.server.serve();
+      } catch (IOException e) {
+        // closed
+      }
+    });
+    serving.setDaemon(true);
+    serving.start();
+  }
+
+  @After
+  public void stopServer() throws IOException {
+    this.server.close();
+    SaveService.getInstance().flush();
+    for (String name : TestSessionServer.NAMES) {
+      Files.deleteIfExists(DataIO.getPlayerPath(name));
+      Files.deleteIfExists(DataIO.getJournalPath(name));
+    }
+  }
+
+  /**
+   * One connection to the server
+   */
+  private static class Client implements AutoCloseable {
+
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+
+    /**
+     * The text of the intro, sent when the session starts
+     */
+    private final String greeting;
+
+    Client(int port) throws IOException {
+      this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+      this.in = new BufferedReader(new InputStreamReader(this.socket.getInputStream(),
+          StandardCharsets.UTF_8));
+      this.out = new OutputStreamWriter(this.socket.getOutputStream(), StandardCharsets.UTF_8);
+      this.greeting = this.readReply();
+    }
+
+    /**
+     * To send the given command and to get the text the game then shows
+     */
+    String send(String command) throws IOException {
+      this.out.write(command + "\n");
+      this.out.flush();
+      return this.readReply();
+    }
+
+    private String readReply() throws IOException {
+      StringBuilder reply = new StringBuilder();
+      String line;
+      while ((line = this.in.readLine()) != null && !line.equals(".")) {
+        reply.append(line.startsWith("..") ? line.substring(1) : line).append('\n');
+      }
+      return reply.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.socket.close();
+    }
+  }
+
+  /**
+   * To wait until the server has the given number of sessions open
+   */
+  private void awaitOpenSessions(int expected) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10000;
+    while (this.server.getOpenSessions() != expected && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(expected, this.server.getOpenSessions());
+  }
+
+  @Test
+  public void testConcurrentSessions() throws Exception {
+    List<Client> clients = new ArrayList<Client>();
+    ExecutorService players = Executors.newFixedThreadPool(2);
+    try {
+      for (int i = 0; i < 2; i++) {
+        clients.add(new Client(this.server.getPort()));
+      }
+      this.awaitOpenSessions(2);
+
+      List<Future<String>> played = new ArrayList<Future<String>>();
+      for (int i = 0; i < 2; i++) {
+        Client client = clients.get(i);
+        String name = TestSessionServer.NAMES[i];
+        played.add(players.submit(() -> {
+          assertTrue(client.send("button_New").contains("What is your name?"));
+          assertTrue(client.send("textIn_" + name).contains("Hello, " + name + "!"));
+          client.send("textIn_first");
+          return client.send("textIn_second");
+        }));
+      }
+      for (Future<String> reply : played) {
+        assertTrue(reply.get().contains("View your Organisms"));
+      }
+      SaveService.getInstance().flush();
+      assertTrue(Files.exists(DataIO.getPlayerPath(TestSessionServer.NAMES[0])));
+      assertTrue(Files.exists(DataIO.getPlayerPath(TestSessionServer.NAMES[1])));
+
+      clients.get(0).send("button_Exit");
+      this.awaitOpenSessions(1);
+    } finally {
+      players.shutdownNow();
+      for (Client client : clients) {
+        client.close();
+      }
+    }
+    this.awaitOpenSessions(0);
+  }
+
+  @Test
+  public void testClaimedNameIsRefused() throws Exception {
+    String name = TestSessionServer.NAMES[2];
+    try (Client second = new Client(this.server.getPort())) {
+      Client first = new Client(this.server.getPort());
+      try {
+        first.send("button_New");
+        assertTrue(first.send("textIn_" + name).contains("Hello, " + name + "!"));
+        first.send("textIn_first");
+        first.send("textIn_second");
+
+        second.send("button_New");
+        assertTrue(second.send("textIn_" + name).contains("Someone else is playing"));
+        assertTrue(second.send("textIn_" + name.toUpperCase())
+            .contains("Someone else is playing"));
+        second.send("button_Back");
+        second.send("button_Load");
+        assertTrue(second.send("textIn_" + name).contains("Someone else is playing"));
+      } finally {
+        // ending the first session frees the name
+        first.close();
+      }
+      this.awaitOpenSessions(1);
+      assertTrue(second.send("textIn_" + name).contains("Welcome back, " + name + "!"));
+    }
+  }
+
+  @Test
+  public void testUnsafeNameIsRefused() throws Exception {
+    try (Client client = new Client(this.server.getPort())) {
+      assertFalse(client.greeting.isEmpty());
+      client.send("button_New");
+      assertTrue(client.send("textIn_../../escaped").contains("Names may only"));
+      client.send("button_Back");
+      client.send("button_Load");
+      assertTrue(client.send("textIn_../../escaped").contains("There is no saved file"));
+    }
+    assertFalse(Files.exists(Paths.get("escaped.plr")));
+    assertFalse(DataIO.isValidPlayerName("../x"));
+    assertFalse(DataIO.isValidPlayerName(""));
+    assertTrue(DataIO.isValidPlayerName("moose"));
+  }
+
+  @Test
+  public void testThreadFactoryRunsSessions() throws Exception {
+    boolean[] ran = { false };
+    Thread t = SessionServer.createThreadFactory("test-").newThread(() -> ran[0] = true);
+    assertTrue(t.getName().startsWith("test-"));
+    assertTrue(t.isDaemon());
+    t.start();
+    t.join();
+    assertTrue(ran[0]);
+    try {
+      // where the JVM has virtual threads, sessions must run on them
+      assertEquals(Boolean.TRUE, Thread.class.getMethod("isVirtual").invoke(t));
+    } catch (NoSuchMethodException e) {
+      // no virtual threads on this JVM; the platform thread above ran the session
+    }
+  }
+}
@@ -7,6 +7,19 @@ public interface Allele {
    * @return The Trait enum value to which this Allele belongs 
    */
   public Trait whichTrait(); 
+  
+  /**
+   * To get this Allele's position among the Alleles of its Trait
+   * (implemented by every Allele enum)
+   */
+  public int ordinal();
+  
+  /**
+   * To get this Allele's position among the Alleles of every Trait
+   */
+  public default int index() {
+    return this.whichTrait().getAlleleOffset() + this.ordinal();
+  }
 
   public enum AlleleColor implements Allele {
     red, yellow, green, blue;
@@ -0,0 +1,255 @@
+package panic.gene;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+import panic.io.DataIO;
+import panic.org.Species;
+import panic.tile.TileType;
+
+/**
+ * All SurvivalTrait weights from the gamedata files, compiled into flat double arrays indexed by
+ * Species, TileType, SurvivalTrait and Allele ordinals. Reading a weight is an array read; no
+ * String keys are built and no Doubles are unboxed.
+ * @author Sam Paniccia
+ *
+ */
+public final class CoefficientTable {
+
+  private static final int NUM_SURVIVAL_TRAITS = SurvivalTrait.values().length;
+  private static final int NUM_TILE_TYPES = TileType.values().length;
+  private static final int NUM_SPECIES = Species.values().length;
+
+  /**
+   * The table in use, or null if the gamedata has not been loaded yet
+   */
+  private static volatile CoefficientTable instance;
+
+  /**
+   * Tile-Trait weights, indexed [tile type][survival trait]
+   */
+  private final double[] tileValues;
+
+  /**
+   * Organism-Trait weights, indexed [species][survival trait]
+   */
+  private final double[] speciesValues;
+
+  /**
+   * Organism-Tile-Trait weights, indexed [species][tile type][survival trait]
+   */
+  private final double[] speciesTileValues;
+
+  /**
+   * Allele-Trait weights, indexed [survival trait][allele index]
+   */
+  private final double[] alleleValues;
+
+  private CoefficientTable(double[] tileValues, double[] speciesValues,
+      double[] speciesTileValues, double[] alleleValues) {
+    this.tileValues = tileValues;
+    this.speciesValues = speciesValues;
+    this.speciesTileValues = speciesTileValues;
+    this.alleleValues = alleleValues;
+  }
+
+  /**
+   * To retrieve the table in use, loading the gamedata first if that has not been done
+   */
+  public static CoefficientTable getInstance() {
+    CoefficientTable table = CoefficientTable.instance;
+    if (table == null) {
+      synchronized (CoefficientTable.class) {
+        if (CoefficientTable.instance == null) {
+          DataIO.loadGameData();
+        }
+        table = CoefficientTable.instance;
+      }
+    }
+    return table;
+  }
+
+  /**
+   * To make the given table the one in use
+   */
+  public static void setInstance(CoefficientTable table) {
+    CoefficientTable.instance = table;
+  }
+
+  /**
+   * To compile a table from the given String-keyed Tile-Trait and Organism-Trait maps and from
+   * the Allele and Organism-Tile maps already loaded into each SurvivalTrait
+   * @throws IllegalArgumentException If any weight is missing from the maps
+   */
+  public static CoefficientTable compile(HashMap<String, Double> tileValues,
+      HashMap<String, Double> orgValues) {
+    double[] tiles = new double[NUM_TILE_TYPES * NUM_SURVIVAL_TRAITS];
+    double[] species = new double[NUM_SPECIES * NUM_SURVIVAL_TRAITS];
+    double[] speciesTiles = new double[NUM_SPECIES * NUM_TILE_TYPES * NUM_SURVIVAL_TRAITS];
+    double[] alleles = new double[NUM_SURVIVAL_TRAITS * Trait.getTotalAlleleNumber()];
+
+    for (SurvivalTrait trait : SurvivalTrait.values()) {
+      for (TileType tile : TileType.values()) {
+        String key = MapKeyGenerator.tileAndTraitToKey(tile.getName(), trait);
+        tiles[tileIndex(tile, trait)] = CoefficientTable.require(tileValues, key);
+      }
+
+      for (Species s : Species.values()) {
+        String key = MapKeyGenerator.orgAndTraitToKey(s.getName(), trait);
+        species[speciesIndex(s, trait)] = CoefficientTable.require(orgValues, key);
+
+        for (TileType tile : TileType.values()) {
+          key = MapKeyGenerator.tileAndSpeciesToKey(tile.getName(), s.getName());
+          speciesTiles[speciesTileIndex(s, tile, trait)] = trait.getTileOrganismValue(key);
+        }
+      }
+
+      for (Trait t : Trait.values()) {
+        for (Allele a : t.getAlleles()) {
+          String key = MapKeyGenerator.alleleAndTraitToKey(a, t);
+          alleles[alleleIndex(trait, a)] = CoefficientTable.require(trait.alleleMap, key);
+        }
+      }
+    }
+
+    return new CoefficientTable(tiles, species, speciesTiles, alleles);
+  }
+
+  /**
+   * To retrieve the value of the given key, or to throw an Exception if it is missing
+   */
+  private static double require(HashMap<String, Double> map, String key) {
+    Double d = (map == null) ? null : map.get(key);
+    if (d == null) {
+      throw new IllegalArgumentException("Missing gamedata value: " + key);
+    }
+    return d;
+  }
+
+  // encoding
+
+  /**
+   * To checksum the order of everything this table is indexed by: the names of the
+   * SurvivalTraits, TileTypes and Species in ordinal order, and every Allele in Allele#index()
+   * order. Tables written for different orders have the same dimensions, but not the same
+   * meaning.
+   */
+  public static long getLayoutDigest() {
+    StringBuilder layout = new StringBuilder();
+    for (SurvivalTrait t : SurvivalTrait.values()) {
+      layout.append(t.name()).append('\0');
+    }
+    layout.append('\n');
+    for (TileType t : TileType.values()) {
+      layout.append(t.getName()).append('\0');
+    }
+    layout.append('\n');
+    for (Species s : Species.values()) {
+      layout.append(s.getName()).append('\0');
+    }
+    layout.append('\n');
+    for (int i = 0; i < Trait.getTotalAlleleNumber(); i++) {
+      Allele a = Trait.getAlleleFromIndex(i);
+      layout.append(a.whichTrait().name()).append('.').append(a.toString()).append('\0');
+    }
+    CRC32 crc = new CRC32();
+    crc.update(layout.toString().getBytes(StandardCharsets.UTF_8));
+    return crc.getValue();
+  }
+
+  /**
+   * To get the number of bytes that #writeTo(ByteBuffer) writes
+   */
+  public int getEncodedSize() {
+    return 4 * 4 + 8 * (this.tileValues.length + this.speciesValues.length
+        + this.speciesTileValues.length + this.alleleValues.length);
+  }
+
+  /**
+   * To write the dimensions of this table and then each of its weight arrays
+   */
+  public void writeTo(ByteBuffer out) {
+    out.putInt(NUM_SURVIVAL_TRAITS);
+    out.putInt(NUM_TILE_TYPES);
+    out.putInt(NUM_SPECIES);
+    out.putInt(Trait.getTotalAlleleNumber());
+    for (double[] values : new double[][] { this.tileValues, this.speciesValues,
+        this.speciesTileValues, this.alleleValues }) {
+      for (double d : values) {
+        out.putDouble(d);
+      }
+    }
+  }
+
+  /**
+   * To read a table written by #writeTo(ByteBuffer)
+   * @throws IllegalArgumentException If the table was written for different SurvivalTraits,
+   * TileTypes, Species or Alleles than the game has now
+   */
+  public static CoefficientTable readFrom(ByteBuffer in) {
+    if (in.getInt() != NUM_SURVIVAL_TRAITS || in.getInt() != NUM_TILE_TYPES
+        || in.getInt() != NUM_SPECIES || in.getInt() != Trait.getTotalAlleleNumber()) {
+      throw new IllegalArgumentException("Coefficient table dimensions do not match the game");
+    }
+    DoubleBuffer values = in.asDoubleBuffer();
+    double[] tiles = new double[NUM_TILE_TYPES * NUM_SURVIVAL_TRAITS];
+    double[] species = new double[NUM_SPECIES * NUM_SURVIVAL_TRAITS];
+    double[] speciesTiles = new double[NUM_SPECIES * NUM_TILE_TYPES * NUM_SURVIVAL_TRAITS];
+    double[] alleles = new double[NUM_SURVIVAL_TRAITS * Trait.getTotalAlleleNumber()];
+    values.get(tiles).get(species).get(speciesTiles).get(alleles);
+    in.position(in.position() + 8 * values.position());
+    return new CoefficientTable(tiles, species, speciesTiles, alleles);
+  }
+
+  // indexing
+
+  private static int tileIndex(TileType tile, SurvivalTrait trait) {
+    return tile.ordinal() * NUM_SURVIVAL_TRAITS + trait.ordinal();
+  }
+
+  private static int speciesIndex(Species species, SurvivalTrait trait) {
+    return species.ordinal() * NUM_SURVIVAL_TRAITS + trait.ordinal();
+  }
+
+  private static int speciesTileIndex(Species species, TileType tile, SurvivalTrait trait) {
+    return (species.ordinal() * NUM_TILE_TYPES + tile.ordinal()) * NUM_SURVIVAL_TRAITS
+        + trait.ordinal();
+  }
+
+  private static int alleleIndex(SurvivalTrait trait, Allele allele) {
+    return trait.ordinal() * Trait.getTotalAlleleNumber() + allele.index();
+  }
+
+  // lookups
+
+  /**
+   * To get the Tile-Trait weight of the given type of tile
+   */
+  public double getTileValue(TileType tile, SurvivalTrait trait) {
+    return this.tileValues[tileIndex(tile, trait)];
+  }
+
+  /**
+   * To get the Organism-Trait weight of the given species
+   */
+  public double getSpeciesValue(Species species, SurvivalTrait trait) {
+    return this.speciesValues[speciesIndex(species, trait)];
+  }
+
+  /**
+   * To get the Organism-Tile-Trait weight of the given species on the given type of tile
+   */
+  public double getSpeciesTileValue(Species species, TileType tile, SurvivalTrait trait) {
+    return this.speciesTileValues[speciesTileIndex(species, tile, trait)];
+  }
+
+  /**
+   * To get the Allele-Trait weight of the given Allele
+   */
+  public double getAlleleValue(SurvivalTrait trait, Allele allele) {
+    return this.alleleValues[alleleIndex(trait, allele)];
+  }
+}
@@ -2,7 +2,7 @@ package panic.gene;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
 
 import panic.game.Father;
 
@@ -27,6 +27,14 @@ public class Gene implements Serializable {
     this.currentAllele = trait.getRandomAllele();
   } 
   
+  /**
+   * Sets this Gene to the given Allele of the given Trait
+   */
+  public Gene(Trait trait, Allele allele) {
+    this.trait = trait;
+    this.currentAllele = allele;
+  }
+  
   /**
    * To mutate this Gene to a different allele
    */
@@ -67,9 +75,13 @@ public class Gene implements Serializable {
     return s;
   }
   
-  public String getStringRepOfCurrentAllele(HashMap<Allele, Boolean> discovered) {
+  /**
+   * To get the String representation of this Gene as known to a player
+   * @param discovered The Allele#index() of every Allele the player has discovered
+   */
+  public String getStringRepOfCurrentAllele(BitSet discovered) {
     String stringRep = "(" + this.trait.getUserFriendlyName() + ": ";
-    return stringRep += (discovered.get(this.currentAllele) 
+    return stringRep += (discovered.get(this.currentAllele.index()) 
         || Father.SHOW_UNDISCOVERED_ALLELES == Father.SHOW_UNDISCOVERED_ALLELES_TRUE) 
         ? this.currentAllele.getStringRepresentation() + ")" : "???)";
     /*if (discovered.get(this.currentAllele)) {
@@ -1,12 +1,12 @@
 package panic.gene;
 
-import java.util.Random;
+import panic.game.RandomSource;
 
 public enum Sex {
   male, female;
   
   public static Sex randomSex() {
-    if (new Random().nextBoolean()) {
+    if (RandomSource.current().nextBoolean()) {
       return Sex.male;
     } else {
       return Sex.female;
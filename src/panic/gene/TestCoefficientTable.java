@@ -0,0 +1,97 @@
+package panic.gene;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import panic.io.DataIO;
+import panic.org.Species;
+import panic.tile.TileType;
+
+public class TestCoefficientTable {
+
+  private static CoefficientTable table;
+  
+  @BeforeClass
+  public static void init() {
+    DataIO.loadGameDataFromText();
+    table = CoefficientTable.getInstance();
+  }
+  
+  @Test
+  public void testTileValues() {
+    HashMap<String, Double> map = DataIO.loadTileValues();
+    for (TileType tile : TileType.values()) {
+      for (SurvivalTrait trait : SurvivalTrait.values()) {
+        String key = MapKeyGenerator.tileAndTraitToKey(tile.getName(), trait);
+        assertEquals(map.get(key), table.getTileValue(tile, trait), 0);
+      }
+    }
+  }
+  
+  @Test
+  public void testSpeciesValues() {
+    HashMap<String, Double> map = DataIO.loadOrgValues();
+    for (Species species : Species.values()) {
+      for (SurvivalTrait trait : SurvivalTrait.values()) {
+        String key = MapKeyGenerator.orgAndTraitToKey(species.getName(), trait);
+        assertEquals(map.get(key), table.getSpeciesValue(species, trait), 0);
+      }
+    }
+  }
+  
+  @Test
+  public void testSpeciesTileValues() {
+    for (Species species : Species.values()) {
+      for (TileType tile : TileType.values()) {
+        for (SurvivalTrait trait : SurvivalTrait.values()) {
+          String key = MapKeyGenerator.tileAndSpeciesToKey(tile.getName(), species.getName());
+          assertEquals(trait.getTileOrganismValue(key), 
+              table.getSpeciesTileValue(species, tile, trait), 0);
+        }
+      }
+    }
+  }
+  
+  @Test
+  public void testAlleleValues() {
+    for (SurvivalTrait trait : SurvivalTrait.values()) {
+      for (Trait t : Trait.values()) {
+        for (Allele a : t.getAlleles()) {
+          String key = MapKeyGenerator.alleleAndTraitToKey(a, t);
+          assertEquals(trait.getAlleleValue(key), table.getAlleleValue(trait, a), 0);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEncodeRoundTrip() {
+    ByteBuffer bytes = ByteBuffer.allocate(table.getEncodedSize());
+    table.writeTo(bytes);
+    assertEquals(0, bytes.remaining());
+    bytes.flip();
+    CoefficientTable read = CoefficientTable.readFrom(bytes);
+    assertEquals(0, bytes.remaining());
+    for (SurvivalTrait trait : SurvivalTrait.values()) {
+      for (TileType tile : TileType.values()) {
+        assertEquals(table.getTileValue(tile, trait), read.getTileValue(tile, trait), 0);
+        for (Species species : Species.values()) {
+          assertEquals(table.getSpeciesTileValue(species, tile, trait),
+              read.getSpeciesTileValue(species, tile, trait), 0);
+        }
+      }
+      for (Species species : Species.values()) {
+        assertEquals(table.getSpeciesValue(species, trait), read.getSpeciesValue(species, trait), 0);
+      }
+      for (int i = 0; i < Trait.getTotalAlleleNumber(); i++) {
+        Allele a = Trait.getAlleleFromIndex(i);
+        assertEquals(table.getAlleleValue(trait, a), read.getAlleleValue(trait, a), 0);
+      }
+    }
+  }
+}
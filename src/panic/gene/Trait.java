@@ -1,9 +1,12 @@
 package panic.gene;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Optional;
-import java.util.Random;
 import java.util.stream.Stream;
 
+import panic.game.RandomSource;
+
 public enum Trait {
 
   size(Allele.AlleleSize.values(), "Size"), 
@@ -21,6 +24,50 @@ public enum Trait {
    */
   private String userFriendlyName;
   
+  /**
+   * The index of this Trait's first Allele among the Alleles of every Trait
+   */
+  private int alleleOffset;
+  
+  /**
+   * The number of Alleles of every Trait
+   */
+  private static final int TOTAL_ALLELE_NUMBER;
+  
+  /**
+   * Every Allele of every Trait, by Allele#index()
+   */
+  private static final Allele[] ALL_ALLELES;
+  
+  /**
+   * The Alleles with each String representation, in Allele#index() order (several Traits have
+   * e.g. a "medium" Allele)
+   */
+  private static final HashMap<String, Allele[]> ALLELES_BY_NAME;
+  
+  static {
+    int offset = 0;
+    for (Trait t : Trait.values()) {
+      t.alleleOffset = offset;
+      offset += t.allAlleles.length;
+    }
+    TOTAL_ALLELE_NUMBER = offset;
+    
+    ALL_ALLELES = new Allele[TOTAL_ALLELE_NUMBER];
+    ALLELES_BY_NAME = new HashMap<String, Allele[]>();
+    for (Trait t : Trait.values()) {
+      for (Allele a : t.allAlleles) {
+        ALL_ALLELES[a.index()] = a;
+        ALLELES_BY_NAME.merge(a.getStringRepresentation(), new Allele[] { a }, 
+            (named, more) -> {
+              Allele[] all = Arrays.copyOf(named, named.length + 1);
+              all[named.length] = more[0];
+              return all;
+            });
+      }
+    }
+  }
+  
   private Trait(Allele[] allAlleles, String userFriendlyName) {
     this.allAlleles = allAlleles; 
     this.userFriendlyName = userFriendlyName;
@@ -43,7 +90,7 @@ public enum Trait {
    * @return
    */
   public Allele getRandomAllele() {
-    int rand = new Random().nextInt(this.allAlleles.length);
+    int rand = RandomSource.current().nextInt(this.allAlleles.length);
     return this.allAlleles[rand];
   } 
   
@@ -65,4 +112,34 @@ public enum Trait {
     return this.allAlleles.length;
   }
   
+  /**
+   * To get the index of this Trait's first Allele among the Alleles of every Trait
+   */
+  public int getAlleleOffset() {
+    return this.alleleOffset;
+  }
+  
+  /**
+   * To get the number of Alleles of every Trait
+   */
+  public static int getTotalAlleleNumber() {
+    return Trait.TOTAL_ALLELE_NUMBER;
+  }
+  
+  /**
+   * To get the Allele at the given position among the Alleles of every Trait
+   * @param index The Allele#index() of the Allele
+   */
+  public static Allele getAlleleFromIndex(int index) {
+    return Trait.ALL_ALLELES[index];
+  }
+  
+  /**
+   * To get every Allele whose String representation is the given name, in Allele#index() order
+   */
+  public static Allele[] getAllelesFromName(String name) {
+    Allele[] named = Trait.ALLELES_BY_NAME.get(name);
+    return (named == null) ? new Allele[0] : named;
+  }
+  
 }
@@ -31,7 +31,7 @@ import panic.org.Organism;
  * @author Sam Paniccia
  *
  */
-public class GUIHandler {
+public class GUIHandler implements GameView {
   
   
   /**
@@ -387,34 +387,40 @@ public class GUIHandler {
    * To change the buttons on the screen from the set of intro buttons (new, load, etc)
    * to the set of gameplay buttons (breed, mutate, etc)
    */
+  @Override
   public void changeButtons() {
-    for (JButton b : this.introButtons) {
-      this.buttonContainer.remove(b);
-    } 
-    
-    this.backButton.setPreferredSize(GUIHandler.GAME_BUTTON_SIZE);
-
-    for (JButton b : this.gameButtons) {
-      this.buttonContainer.add(b);
-    }
-    this.buttonContainer.add(this.backButton);
-    
+    SwingUtilities.invokeLater(() -> {
+      for (JButton b : this.introButtons) {
+        this.buttonContainer.remove(b);
+      } 
+      
+      this.backButton.setPreferredSize(GUIHandler.GAME_BUTTON_SIZE);
+  
+      for (JButton b : this.gameButtons) {
+        this.buttonContainer.add(b);
+      }
+      this.buttonContainer.add(this.backButton);
+    });
   }
   
   /**
    * To change the text on textOutput
    * @param input The text to show
    */
+  @Override
   public void setText(String input) {
-    this.textOutput.setText(input);
+    SwingUtilities.invokeLater(() -> this.textOutput.setText(input));
   }
   
   /**
    * To add text to textOutput
    */
+  @Override
   public void addText(String text) {
-    String current = this.textOutput.getText();
-    this.textOutput.setText(current + text);
+    SwingUtilities.invokeLater(() -> {
+      String current = this.textOutput.getText();
+      this.textOutput.setText(current + text);
+    });
   }
   
   /** 
@@ -437,6 +443,7 @@ public class GUIHandler {
   /**
    * To repaint the play panel
    */
+  @Override
   public void repaint() {
     SwingUtilities.invokeLater(() -> {
       this.playPanel.repaint(); 
@@ -448,6 +455,7 @@ public class GUIHandler {
    * @param g
    * @param toSay
    */
+  @Override
   public void renderTextOnPlayPanel(Graphics2D g, String[] toSay) {
     //this.player.renderTextOnPlayPanel(g, toSay);
     int xPos = 50;
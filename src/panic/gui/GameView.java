@@ -0,0 +1,39 @@
+package panic.gui;
+
+import java.awt.Graphics2D;
+
+/**
+ * What the GameController shows the user through: the Swing GUIHandler when playing, or a
+ * HeadlessView when commands are run without a screen.<br>
+ * Implementations take care of their own threading; the GameController may call them from any
+ * thread.
+ * @author Sam Paniccia
+ *
+ */
+public interface GameView {
+
+  /**
+   * To replace the text shown to the user
+   */
+  public void setText(String text);
+
+  /**
+   * To add text onto whatever is being shown already
+   */
+  public void addText(String text);
+
+  /**
+   * To refresh the image of the board
+   */
+  public void repaint();
+
+  /**
+   * To change from the intro buttons to the gameplay buttons
+   */
+  public void changeButtons();
+
+  /**
+   * To render text onto the board image
+   */
+  public void renderTextOnPlayPanel(Graphics2D g, String[] toSay);
+}
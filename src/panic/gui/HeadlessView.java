@@ -0,0 +1,47 @@
+package panic.gui;
+
+import java.awt.Graphics2D;
+
+/**
+ * A GameView with no screen, for running the game's states from scripts and tests.<br>
+ * Text is kept so that it may be read back; nothing is drawn.
+ * @author Sam Paniccia
+ *
+ */
+public class HeadlessView implements GameView {
+
+  /**
+   * The text that would be shown to the user
+   */
+  private final StringBuilder text = new StringBuilder();
+
+  @Override
+  public synchronized void setText(String text) {
+    this.text.setLength(0);
+    this.text.append(text);
+  }
+
+  @Override
+  public synchronized void addText(String text) {
+    this.text.append(text);
+  }
+
+  @Override
+  public void repaint() {
+  }
+
+  @Override
+  public void changeButtons() {
+  }
+
+  @Override
+  public void renderTextOnPlayPanel(Graphics2D g, String[] toSay) {
+  }
+
+  /**
+   * To get the text that would be shown to the user
+   */
+  public synchronized String getText() {
+    return this.text.toString();
+  }
+}
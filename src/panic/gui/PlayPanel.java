@@ -8,6 +8,8 @@ import java.awt.RenderingHints;
 
 import javax.swing.JPanel;
 
+import panic.metrics.TurnMetrics;
+
 /**
  * The JPanel on which all actual game rendering occurs
  * @author Sam Paniccia
@@ -57,6 +59,7 @@ public class PlayPanel extends JPanel {
   
   @Override
   public void paintComponent(Graphics g) {
+    long start = System.nanoTime();
     super.paintComponent(g);
     Graphics2D G = (Graphics2D) g; 
     // draw background
@@ -65,6 +68,7 @@ public class PlayPanel extends JPanel {
     G.setColor(this.COLOR_BACKGROUND);
     G.fillRect(0, 0, this.width, this.height); 
     this.handler.drawPlayPanel(G);
+    TurnMetrics.REPAINT.recordSince(start);
   }
  
 }
@@ -0,0 +1,134 @@
+package panic.io;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A Handler that hands LogRecords to another Handler (usually a FileHandler) on a background
+ * thread.<br>
+ * Records are queued in a fixed-size ring buffer. Publishing never waits on file I/O: if the
+ * buffer is full the record is dropped, and the number of dropped records is logged once the
+ * writer catches up.
+ * @author Sam Paniccia
+ *
+ */
+public class AsyncLogHandler extends Handler {
+
+  /**
+   * The default number of records the buffer holds
+   */
+  public static final int DEFAULT_CAPACITY = 8192;
+
+  /**
+   * How long the writer waits for a record before checking whether it has been closed, in ms
+   */
+  private static final long POLL_MILLIS = 100;
+
+  /**
+   * The Handler that records are written through
+   */
+  private final Handler target;
+
+  /**
+   * Records waiting to be written
+   */
+  private final ArrayBlockingQueue<LogRecord> buffer;
+
+  /**
+   * The number of records dropped because the buffer was full, since the last report
+   */
+  private final AtomicLong dropped;
+
+  /**
+   * The background thread that writes records through the target
+   */
+  private final Thread writer;
+
+  private volatile boolean closed;
+
+  public AsyncLogHandler(Handler target) {
+    this(target, AsyncLogHandler.DEFAULT_CAPACITY);
+  }
+
+  public AsyncLogHandler(Handler target, int capacity) {
+    this.target = target;
+    this.buffer = new ArrayBlockingQueue<LogRecord>(capacity);
+    this.dropped = new AtomicLong();
+    this.writer = new Thread(() -> this.drain(), "log-writer");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  /**
+   * To queue the given record for writing, without waiting
+   */
+  @Override
+  public void publish(LogRecord record) {
+    if (this.closed || !this.isLoggable(record)) {
+      return;
+    }
+    if (!this.buffer.offer(record)) {
+      this.dropped.incrementAndGet();
+    }
+  }
+
+  /**
+   * To flush the target. Records still in the buffer are not waited for.
+   */
+  @Override
+  public void flush() {
+    this.target.flush();
+  }
+
+  /**
+   * To write every buffered record and to close the target
+   */
+  @Override
+  public void close() {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    try {
+      this.writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    this.target.close();
+  }
+
+  /**
+   * To write batches of records through the target until closed and empty
+   */
+  private void drain() {
+    ArrayList<LogRecord> batch = new ArrayList<LogRecord>();
+    while (!this.closed || !this.buffer.isEmpty()) {
+      try {
+        LogRecord first = this.buffer.poll(AsyncLogHandler.POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+      } catch (InterruptedException e) {
+        // keep draining; close() is what stops the writer
+      }
+      this.buffer.drainTo(batch);
+      for (LogRecord record : batch) {
+        this.target.publish(record);
+      }
+      batch.clear();
+
+      long lost = this.dropped.getAndSet(0);
+      if (lost > 0) {
+        this.target.publish(new LogRecord(Level.WARNING,
+            lost + " log records dropped: the log buffer was full."));
+      }
+      this.target.flush();
+    }
+  }
+}
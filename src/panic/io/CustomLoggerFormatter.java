@@ -3,6 +3,7 @@ package panic.io;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.logging.Formatter;
+import java.util.logging.Level;
 import java.util.logging.LogRecord;
 
 public class CustomLoggerFormatter extends Formatter {
@@ -24,9 +25,13 @@ public class CustomLoggerFormatter extends Formatter {
   @Override
   public String format(LogRecord record) {
     StringBuilder message = new StringBuilder(1000);
-    message.append(formatter.format(System.currentTimeMillis()));
+    // records may be formatted well after they were logged, so use the time they were logged at
+    message.append(formatter.format(record.getMillis()));
     message.append(" - ");
-    //maybe add level management here?
+    if (record.getLevel() != Level.INFO) {
+      message.append(record.getLevel().getName());
+      message.append(": ");
+    }
     message.append(formatMessage(record));
     message.append(newline);
     return message.toString();
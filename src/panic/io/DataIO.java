@@ -1,28 +1,40 @@
 package panic.io;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.FileReader;
+import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import panic.game.Father;
 import panic.game.Player;
+import panic.gene.CoefficientTable;
 import panic.gene.MapKeyGenerator;
 import panic.gene.SurvivalTrait;
 import panic.gene.Trait;
+import panic.jfr.GameDataLoadedEvent;
+import panic.jfr.PlayerLoadedEvent;
+import panic.jfr.PlayerSavedEvent;
+import panic.jfr.ScenarioLoadedEvent;
+import panic.scenario.Scenario;
 import panic.tile.BoardTile;
-import panic.tile.DeepOceanTile;
-import panic.tile.ForestTile;
-import panic.tile.MountainTile;
-import panic.tile.OceanTile;
+import panic.tile.TileGrid;
+import panic.tile.TileType;
 
 public class DataIO {
 
@@ -30,93 +42,168 @@ public class DataIO {
    * The character used to separate entries in all data files
    */
   private static final String DELIMITER = "\t";
+
+  /**
+   * The directory holding the gamedata text files and the game data pack
+   */
+  static final String GAMEDATA_DIR = "res/gamedata";
+
+  /**
+   * The directory holding the player files and journals
+   */
+  private static final String PLAYERDATA_DIR = "res/playerdata";
+
+  /**
+   * The names a player may have
+   */
+  private static final Pattern PLAYER_NAME = Pattern.compile("[A-Za-z0-9_-]{1,32}");
   
+  /**
+   * The largest window of a Scenario file mapped into memory at once
+   */
+  private static final long SCENARIO_WINDOW = 64 << 20;
+
   /**
    * To parse a Scenario file into a list of BoardTiles
    * @return the number of columns on the board
    */
-  public static int readTiles(String which, ArrayList<BoardTile> board) { 
-    
+  public static int readTiles(String which, ArrayList<BoardTile> board) {
+    TileGrid grid = DataIO.readTileGrid(which);
+    board.addAll(Arrays.asList(grid.createTiles()));
+    return grid.getCols();
+  }
+
+  /**
+   * To read a Scenario file into a TileGrid. The file is memory-mapped a window at a time and
+   * decoded in bulk, so boards far larger than the heap's worth of BoardTiles may be read.
+   */
+  public static TileGrid readTileGrid(String which) {
     String root = "res/scenario/" + which + ".sno";
     Father.log("Attempting to read in board data: " + root);
-    int h = 0;
-    try {
-      FileReader fin = new FileReader(root);
-      BufferedReader b = new BufferedReader(fin);
-      
+    ScenarioLoadedEvent event = new ScenarioLoadedEvent();
+    event.begin();
+    TileGrid grid = null;
+    try (FileChannel channel = FileChannel.open(Paths.get(root), StandardOpenOption.READ)) {
+      long size = channel.size();
+      MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+          Math.min(size, DataIO.SCENARIO_WINDOW));
+
       //first line is width, second is height
-      
-      int w = Integer.valueOf(b.readLine());
-      h = Integer.valueOf(b.readLine());
-      
-      // or do mod/div on one int for row/col but this is fine
-      int colNum = 0;
-      int rowNum = 0;
-      
-      while(b.ready()) {
-        int next = b.read(); 
-        if ('!' <= next && next <= '~') {
-          switch (next) {
-          case 'o':
-            // Ocean tile
-            board.add(new OceanTile(rowNum, colNum));
-            break;
-          case 'f':
-            // Forest tile
-            board.add(new ForestTile(rowNum, colNum));
-            break;
-          case 'm':
-            // Mountain tile
-            board.add(new MountainTile(rowNum, colNum));
-            break;
-          case 'd':
-            // Deep Ocean tile
-            board.add(new DeepOceanTile(rowNum, colNum));
-            break;
-          default:
-              throw new IllegalArgumentException("Illegal character: " + next); 
-          } 
-          colNum++;
-          if (colNum == w) {
-            colNum = 0;
-            rowNum++;
-          } 
+      int w = Integer.valueOf(DataIO.readLine(in).trim());
+      int h = Integer.valueOf(DataIO.readLine(in).trim());
+      byte[] types = new byte[Math.multiplyExact(w, h)];
+
+      byte[] chunk = new byte[8192];
+      int n = 0;
+      long position = in.position();
+      while (position < size) {
+        if (!in.hasRemaining()) {
+          in = channel.map(FileChannel.MapMode.READ_ONLY, position,
+              Math.min(size - position, DataIO.SCENARIO_WINDOW));
+        }
+        int length = Math.min(chunk.length, in.remaining());
+        in.get(chunk, 0, length);
+        position += length;
+        for (int i = 0; i < length; i++) {
+          int next = chunk[i];
+          if ('!' <= next && next <= '~') {
+            TileType type = TileType.fromSymbol(next);
+            if (type == null) {
+              throw new IllegalArgumentException("Illegal character: " + next);
+            }
+            if (n == types.length) {
+              throw new IllegalArgumentException("More than " + w + "x" + h + " tiles");
+            }
+            types[n++] = (byte) type.ordinal();
+          }
         }
       }
-      
+      if (n != types.length) {
+        throw new IllegalArgumentException("Only " + n + " of " + w + "x" + h + " tiles");
+      }
+      grid = new TileGrid(h, w, types);
       Father.log("Reading succeeded!");
-      b.close();  
     }
     catch (Exception e) {
       Father.log("Reading FAILED! " + e.getMessage());
       e.printStackTrace();
-      System.exit(-1); 
+      System.exit(-1);
     }
-    return h;
+    event.end();
+    if (event.shouldCommit()) {
+      event.scenario = which;
+      event.tiles = grid.getNumTiles();
+      event.commit();
+    }
+    return grid;
   }
-   
-  
+
+  /**
+   * To read the line of ASCII text at the given buffer's position, up to and past its newline
+   */
+  private static String readLine(ByteBuffer in) {
+    StringBuilder line = new StringBuilder();
+    while (in.hasRemaining()) {
+      char c = (char) in.get();
+      if (c == '\n') {
+        break;
+      }
+      line.append(c);
+    }
+    return line.toString();
+  }
+
   /**
    * To load in a player file
+   * @throws IllegalArgumentException If the name is not a valid player name
    */
   public static Player loadPlayer(String name) {
-    String root = "res/playerdata/" + name + ".plr";
+    Path root = DataIO.getPlayerPath(name);
     Father.log("Attempting to read player data: " + root);
+    PlayerLoadedEvent event = new PlayerLoadedEvent();
+    event.begin();
     Player p = null;
+    long numBytes = 0;
     try {
-      File f = new File(root);
+      File f = root.toFile();
       if (!f.exists()) {
         return null;
       }
-      FileInputStream fin = new FileInputStream(f); 
-      ObjectInputStream in = new ObjectInputStream(fin); 
-      p = (Player) in.readObject();
+      ByteBuffer bytes = PlayerFile.readAll(f.toPath());
+      numBytes = bytes.limit();
+      if (PlayerFile.isPlayerFile(bytes)) {
+        p = PlayerFile.decode(bytes);
+        Path journal = DataIO.getJournalPath(name);
+        if (Files.exists(journal)) {
+          ByteBuffer records = PlayerFile.readAll(journal);
+          numBytes += records.limit();
+          int replayed = PlayerJournal.replay(p, records);
+          Father.log("Replayed " + replayed + " journaled changes.");
+        }
+        p.setJournal(new PlayerJournal(f.toPath(), journal));
+      } else {
+        // player files from before the binary format are serialized Players
+        ObjectInputStream in = new ObjectInputStream(
+            new ByteArrayInputStream(bytes.array(), 0, bytes.limit())); 
+        p = (Player) in.readObject();
+        in.close();
+        Scenario board = p.getScenario();
+        for (int i = 0; i < board.getNumTiles(); i++) {
+          board.getTile(i).buryTheDead();
+        }
+      }
       Father.log("Reading succeeded!");
-      in.close();
     } catch (Exception e) {
       Father.log("Reading FAILED! " + e.getMessage());
       e.printStackTrace();
     }
+    event.end();
+    if (p != null && event.shouldCommit()) {
+      event.player = name;
+      event.bytes = numBytes;
+      event.organisms = p.getOrganisms().size();
+      event.commit();
+    }
     return p;
   }
   
@@ -126,18 +213,58 @@ public class DataIO {
   public static void writePlayer(Player p) {
     try {
       String name = p.getName();
-      String root = "res/playerdata/" + name + ".plr"; 
+      Path root = DataIO.getPlayerPath(name);
       Father.log("Attempting to write player data: " + root);
-      FileOutputStream fout = new FileOutputStream(root);
-      ObjectOutputStream out = new ObjectOutputStream(fout);
-      out.writeObject(p);
-      out.close();
+      PlayerSavedEvent event = new PlayerSavedEvent();
+      event.begin();
+      ByteBuffer bytes = PlayerFile.encode(p);
+      long numBytes = bytes.remaining();
+      PlayerFile.write(bytes, root);
+      event.end();
+      if (event.shouldCommit()) {
+        event.player = name;
+        event.bytes = numBytes;
+        event.snapshot = true;
+        event.commit();
+      }
       Father.log("Write succeeded!");
     } catch (Exception e) { 
       Father.log("Write FAILED!" + e.getMessage());
       e.printStackTrace();
     }
   }
+  
+  /**
+   * To get whether the given name may be a player's, i.e. whether it is 1 to 32 letters, digits,
+   * hyphens and underscores. Only such names are made into paths, so that a name can never
+   * reach outside of res/playerdata.
+   */
+  public static boolean isValidPlayerName(String name) {
+    return name != null && DataIO.PLAYER_NAME.matcher(name).matches();
+  }
+  
+  /**
+   * To get the path of the player file of the player of the given name
+   * @throws IllegalArgumentException If the name is not a valid player name
+   */
+  public static Path getPlayerPath(String name) {
+    return DataIO.getPlayerDataPath(name, ".plr");
+  }
+  
+  /**
+   * To get the path of the journal of the player of the given name
+   * @throws IllegalArgumentException If the name is not a valid player name
+   */
+  public static Path getJournalPath(String name) {
+    return DataIO.getPlayerDataPath(name, ".jrn");
+  }
+  
+  private static Path getPlayerDataPath(String name, String extension) {
+    if (!DataIO.isValidPlayerName(name)) {
+      throw new IllegalArgumentException("Not a valid player name: " + name);
+    }
+    return Paths.get(DataIO.PLAYERDATA_DIR, name + extension);
+  }
 
    
   /**
@@ -161,6 +288,8 @@ public class DataIO {
   public static HashMap<String, Double> loadTileValues() {
     HashMap<String, Double> orgVals = new HashMap<String, Double>();
     String root = "res/gamedata/tile_trait_vals.txt";
+    GameDataLoadedEvent event = new GameDataLoadedEvent();
+    event.begin();
     try {
       FileReader fin = new FileReader(root);
       BufferedReader b = new BufferedReader(fin); 
@@ -198,6 +327,7 @@ public class DataIO {
     } catch (Exception e) {
       e.printStackTrace();
     }
+    DataIO.commitLoaded(event, root, orgVals.size());
     
     return orgVals;
   }
@@ -211,6 +341,8 @@ public class DataIO {
   public static HashMap<String, Double> loadOrgValues() {
     HashMap<String, Double> traitVals = new HashMap<String, Double>();
     String root = "res/gamedata/org_trait_vals.txt";
+    GameDataLoadedEvent event = new GameDataLoadedEvent();
+    event.begin();
     try {
       FileReader fin = new FileReader(root);
       BufferedReader b = new BufferedReader(fin); 
@@ -248,10 +380,56 @@ public class DataIO {
     } catch (Exception e) {
       e.printStackTrace();
     }
+    DataIO.commitLoaded(event, root, traitVals.size());
     
     return traitVals;
   }
 
+  /**
+   * To load the CoefficientTable in use from the game data pack, or, if the pack is missing or
+   * out of date, to compile it from the gamedata text files and to write a new pack
+   */
+  public static void loadGameData() {
+    Path gamedata = Paths.get(DataIO.GAMEDATA_DIR);
+    Path pack = GameDataPack.getPackPath(gamedata);
+    GameDataPack.Sources sources;
+    try {
+      sources = new GameDataPack.Sources(gamedata);
+    } catch (IOException e) {
+      Father.log("Reading game data file attributes FAILED! " + e.getMessage());
+      DataIO.loadGameDataFromText();
+      return;
+    }
+
+    Optional<CoefficientTable> packed = GameDataPack.read(pack, sources);
+    if (packed.isPresent()) {
+      Father.log("Loaded game data pack: " + pack);
+      CoefficientTable.setInstance(packed.get());
+      if (!sources.isChecksummed()) {
+        return;
+      }
+      // the text files were touched but not changed; record their new times in the pack
+    } else {
+      DataIO.loadGameDataFromText();
+    }
+    try {
+      GameDataPack.write(CoefficientTable.getInstance(), sources, pack);
+    } catch (IOException e) {
+      Father.log("Writing game data pack " + pack + " FAILED! " + e.getMessage());
+    }
+  }
+
+  /**
+   * To load all SurvivalTrait weights from the gamedata text files and to compile them into the
+   * CoefficientTable in use
+   */
+  public static void loadGameDataFromText() {
+    DataIO.loadOrgTileTraitVals();
+    DataIO.loadAlleleValues();
+    CoefficientTable.setInstance(
+        CoefficientTable.compile(DataIO.loadTileValues(), DataIO.loadOrgValues()));
+  }
+
   // REDONE
   /**
    * To load Allele-SurvivalTrait weights from allele_trait_vals.txt and to
@@ -259,6 +437,9 @@ public class DataIO {
    */
   public static void loadAlleleValues() {
     String root = "res/gamedata/allele_trait_vals.txt";   
+    GameDataLoadedEvent event = new GameDataLoadedEvent();
+    event.begin();
+    int entries = 0;
     
     try {
       FileReader fin = new FileReader(root);
@@ -308,12 +489,14 @@ public class DataIO {
           }
         }
         currentSurvivalTrait.setAlleleMap(valsForSurvivalTrait); 
+        entries += valsForSurvivalTrait.size();
       }  
       
       b.close();
     } catch (Exception e) {
       e.printStackTrace(); 
     }
+    DataIO.commitLoaded(event, root, entries);
   } 
   
   // REDONE
@@ -323,6 +506,9 @@ public class DataIO {
    */
   public static void loadOrgTileTraitVals() {
     String root = "res/gamedata/org_tile_trait_vals.txt";
+    GameDataLoadedEvent event = new GameDataLoadedEvent();
+    event.begin();
+    int entries = 0;
     try {
       FileReader fin = new FileReader(root);
       BufferedReader b = new BufferedReader(fin);
@@ -357,6 +543,7 @@ public class DataIO {
             String key = MapKeyGenerator.tileAndSpeciesToKey(tile, species);
             //System.out.println(key + " " + value);
             currentTrait.putTileOrganismValue(key, value);
+            entries++;
           }
         } 
          
@@ -366,6 +553,19 @@ public class DataIO {
     } catch (Exception e) {
       e.printStackTrace();
     }
+    DataIO.commitLoaded(event, root, entries);
+  }
+  
+  /**
+   * To end and, if it is being recorded, commit the given event for a game data file
+   */
+  private static void commitLoaded(GameDataLoadedEvent event, String file, int entries) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.file = file;
+      event.entries = entries;
+      event.commit();
+    }
   }
 
   
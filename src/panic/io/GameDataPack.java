@@ -0,0 +1,227 @@
+package panic.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+import panic.game.Father;
+import panic.gene.CoefficientTable;
+
+/**
+ * Reads and writes the game data pack (res/gamedata/gamedata.pack): the CoefficientTable
+ * compiled from the gamedata text files, as dense double tables that are memory-mapped at
+ * startup instead of parsed.<br>
+ * The pack holds a digest of the order of the SurvivalTraits, TileTypes, Species and Alleles
+ * that the tables are indexed by, so a pack compiled before any of them was added, removed or
+ * reordered is never used; a checksum of the text files it was compiled from, so a pack that is
+ * out of date (e.g. after the text files are regenerated) is never used; and a checksum of its
+ * own tables, so a damaged pack is never used either. In every case DataIO falls back to the
+ * text files.<br>
+ * So that startup does not read the text files, the pack also holds the size and modification
+ * time of each of them: only if any of those differ are the text files checksummed.<br>
+ * Layout (big-endian): magic, version, layout digest, the size and modification time of each
+ * text file, source checksum, table length, table checksum, then the table as written by
+ * CoefficientTable#writeTo(ByteBuffer).
+ * @author Sam Paniccia
+ *
+ */
+public class GameDataPack {
+
+  /**
+   * The first four bytes of every pack, "PGDP"
+   */
+  public static final int MAGIC = 0x50474450;
+
+  /**
+   * The version of the format written by this class
+   */
+  public static final short VERSION = 3;
+
+  /**
+   * The gamedata text files a pack is compiled from, in checksum order
+   */
+  static final String[] SOURCES = { "allele_trait_vals.txt", "org_tile_trait_vals.txt",
+      "org_trait_vals.txt", "tile_trait_vals.txt" };
+
+  private static final int HEADER_SIZE = 4 + 2 + 8 + 16 * GameDataPack.SOURCES.length + 8 + 4 + 8;
+
+  /**
+   * The gamedata text files in one directory, as a pack is checked against
+   */
+  public static class Sources {
+
+    private final Path gamedata;
+
+    /**
+     * The size and modification time, in milliseconds, of each text file, in SOURCES order
+     */
+    private final long[] stamp;
+
+    /**
+     * The checksum of the text files, or null until it is first needed
+     */
+    private Long checksum;
+
+    /**
+     * @throws IOException If the size or modification time of any of the text files in the given
+     * directory cannot be read
+     */
+    public Sources(Path gamedata) throws IOException {
+      this.gamedata = gamedata;
+      this.stamp = new long[2 * GameDataPack.SOURCES.length];
+      for (int i = 0; i < GameDataPack.SOURCES.length; i++) {
+        BasicFileAttributes attributes = Files.readAttributes(
+            gamedata.resolve(GameDataPack.SOURCES[i]), BasicFileAttributes.class);
+        this.stamp[2 * i] = attributes.size();
+        this.stamp[2 * i + 1] = attributes.lastModifiedTime().toMillis();
+      }
+    }
+
+    /**
+     * To get the checksum of the text files, reading them the first time it is needed
+     * @throws IOException If any of them cannot be read
+     */
+    public long getChecksum() throws IOException {
+      if (this.checksum == null) {
+        this.checksum = GameDataPack.checksumSources(this.gamedata);
+      }
+      return this.checksum;
+    }
+
+    /**
+     * To get whether the text files have been read to checksum them
+     */
+    public boolean isChecksummed() {
+      return this.checksum != null;
+    }
+  }
+
+  /**
+   * To get the path of the pack compiled from the given gamedata directory
+   */
+  public static Path getPackPath(Path gamedata) {
+    return gamedata.resolve("gamedata.pack");
+  }
+
+  /**
+   * To checksum the gamedata text files in the given directory
+   * @throws IOException If any of them cannot be read
+   */
+  public static long checksumSources(Path gamedata) throws IOException {
+    CRC32 crc = new CRC32();
+    for (String source : GameDataPack.SOURCES) {
+      crc.update(Files.readAllBytes(gamedata.resolve(source)));
+    }
+    return crc.getValue();
+  }
+
+  /**
+   * To read the CoefficientTable in the given pack, if the pack exists, is intact and was
+   * compiled from the given text files as they are now. The text files are only checksummed if
+   * their sizes or modification times differ from those the pack was compiled from.
+   */
+  public static Optional<CoefficientTable> read(Path pack, Sources sources) {
+    if (!Files.exists(pack)) {
+      return Optional.empty();
+    }
+    try (FileChannel channel = FileChannel.open(pack, StandardOpenOption.READ)) {
+      MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (in.remaining() < GameDataPack.HEADER_SIZE || in.getInt() != GameDataPack.MAGIC
+          || in.getShort() != GameDataPack.VERSION) {
+        Father.log("Game data pack " + pack + " is not a pack of this version; ignoring it.");
+        return Optional.empty();
+      }
+      if (in.getLong() != CoefficientTable.getLayoutDigest()) {
+        Father.log("Game data pack " + pack + " was compiled for other SurvivalTraits, TileTypes, "
+            + "Species or Alleles; ignoring it.");
+        return Optional.empty();
+      }
+      long[] stamp = new long[sources.stamp.length];
+      for (int i = 0; i < stamp.length; i++) {
+        stamp[i] = in.getLong();
+      }
+      long sourceChecksum = in.getLong();
+      if (!Arrays.equals(stamp, sources.stamp) && sourceChecksum != sources.getChecksum()) {
+        Father.log("Game data pack " + pack + " is out of date; ignoring it.");
+        return Optional.empty();
+      }
+      int length = in.getInt();
+      long tableChecksum = in.getLong();
+      if (length != in.remaining()) {
+        Father.log("Game data pack " + pack + " is truncated; ignoring it.");
+        return Optional.empty();
+      }
+      ByteBuffer table = in.slice();
+      CRC32 crc = new CRC32();
+      crc.update(table.duplicate());
+      if (crc.getValue() != tableChecksum) {
+        Father.log("Game data pack " + pack + " is damaged; ignoring it.");
+        return Optional.empty();
+      }
+      return Optional.of(CoefficientTable.readFrom(table));
+    } catch (IOException | IllegalArgumentException e) {
+      Father.log("Reading game data pack " + pack + " FAILED! " + e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * To write the given table to the given pack, replacing it only once the write is complete and
+   * on disk
+   * @param sources The text files the table was compiled from
+   */
+  public static void write(CoefficientTable table, Sources sources, Path pack)
+      throws IOException {
+    ByteBuffer tableBytes = ByteBuffer.allocate(table.getEncodedSize());
+    table.writeTo(tableBytes);
+    tableBytes.flip();
+    CRC32 crc = new CRC32();
+    crc.update(tableBytes.duplicate());
+
+    ByteBuffer out = ByteBuffer.allocate(GameDataPack.HEADER_SIZE + tableBytes.remaining());
+    out.putInt(GameDataPack.MAGIC);
+    out.putShort(GameDataPack.VERSION);
+    out.putLong(CoefficientTable.getLayoutDigest());
+    for (long l : sources.stamp) {
+      out.putLong(l);
+    }
+    out.putLong(sources.getChecksum());
+    out.putInt(tableBytes.remaining());
+    out.putLong(crc.getValue());
+    out.put(tableBytes);
+    out.flip();
+
+    Path temp = pack.resolveSibling(pack.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (out.hasRemaining()) {
+        channel.write(out);
+      }
+      // otherwise a crash could leave the rename on disk without the data it points to
+      channel.force(true);
+    }
+    Files.move(temp, pack, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * To compile the gamedata text files in res/gamedata, relative to the working directory, into
+   * a pack, as part of the build
+   */
+  public static void main(String[] args) throws IOException {
+    Path gamedata = Paths.get(DataIO.GAMEDATA_DIR);
+    DataIO.loadGameDataFromText();
+    Path pack = GameDataPack.getPackPath(gamedata);
+    GameDataPack.write(CoefficientTable.getInstance(), new GameDataPack.Sources(gamedata), pack);
+    System.out.println("Wrote " + pack + " (" + Files.size(pack) + " bytes)");
+  }
+}
@@ -0,0 +1,228 @@
+package panic.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import panic.game.Player;
+import panic.gene.Allele;
+import panic.gene.Sex;
+import panic.gene.Trait;
+import panic.org.Organism;
+import panic.org.Species;
+import panic.scenario.Scenario;
+import panic.tile.BoardTile;
+
+/**
+ * Reads and writes the binary player file (.plr) format.<br>
+ * The board is not stored: only the key of the Player's Scenario is, and the board is rebuilt
+ * from that Scenario when the file is read. Organisms are stored as ordinals (species, sex, the
+ * Allele of each Trait) and the board index of their tile, and discovered Alleles as a bitset of
+ * Allele#index().<br>
+ * Layout (big-endian): magic, version, name, scenario key, current turn, seed, journal sequence
+ * (since version 2), discovered bitset, then each Organism as name, species, sex, life, tile
+ * index and Allele ordinals.
+ * @author Sam Paniccia
+ *
+ */
+public class PlayerFile {
+
+  /**
+   * The first four bytes of every binary player file, "PPLR"
+   */
+  public static final int MAGIC = 0x50504C52;
+
+  /**
+   * The version of the format written by this class
+   */
+  public static final short VERSION = 2;
+
+  /**
+   * The tile index stored for an Organism that has not been placed
+   */
+  private static final int NOT_PLACED = -1;
+
+  private static final Species[] SPECIES = Species.values();
+  private static final Sex[] SEXES = Sex.values();
+  private static final Trait[] TRAITS = Trait.values();
+
+  /**
+   * To determine whether the given bytes start a binary player file
+   */
+  public static boolean isPlayerFile(ByteBuffer head) {
+    return head.remaining() >= 4 && head.getInt(head.position()) == PlayerFile.MAGIC;
+  }
+
+  /**
+   * To encode the given Player
+   */
+  public static ByteBuffer encode(Player p) {
+    Scenario scenario = p.getScenario();
+    List<Organism> orgs = p.getOrganisms();
+    long[] discovered = p.getDiscoveredAlleles().toLongArray();
+
+    byte[] name = p.getName().getBytes(StandardCharsets.UTF_8);
+    byte[] key = scenario.getKey().getBytes(StandardCharsets.UTF_8);
+    byte[][] orgNames = new byte[orgs.size()][];
+    int size = 4 + 2 + (2 + name.length) + (2 + key.length) + 4 + 8 + 8
+        + (2 + 8 * discovered.length) + 4;
+    for (int i = 0; i < orgs.size(); i++) {
+      Organism o = orgs.get(i);
+      orgNames[i] = o.getName().getBytes(StandardCharsets.UTF_8);
+      size += (2 + orgNames[i].length) + 1 + 1 + 1 + 4 + 1 + o.getSpecies().getTraits().length;
+    }
+
+    ByteBuffer out = ByteBuffer.allocate(size);
+    out.putInt(PlayerFile.MAGIC);
+    out.putShort(PlayerFile.VERSION);
+    PlayerFile.putString(out, name);
+    PlayerFile.putString(out, key);
+    out.putInt(p.getCurrentTurn());
+    out.putLong(p.getSeed());
+    out.putLong(p.getJournalSequence());
+    out.putShort((short) discovered.length);
+    for (long word : discovered) {
+      out.putLong(word);
+    }
+
+    out.putInt(orgs.size());
+    for (int i = 0; i < orgs.size(); i++) {
+      Organism o = orgs.get(i);
+      PlayerFile.putString(out, orgNames[i]);
+      out.put((byte) o.getSpecies().ordinal());
+      out.put((byte) o.getSex().ordinal());
+      out.put((byte) (o.isAlive() ? 1 : 0));
+      out.putInt(o.isPlacedOnBoard() ? scenario.getTileIndex(o.getTile()) : PlayerFile.NOT_PLACED);
+      Trait[] traits = o.getSpecies().getTraits();
+      out.put((byte) traits.length);
+      for (Trait t : traits) {
+        out.put((byte) o.getAlleleAt(t).ordinal());
+      }
+    }
+    out.flip();
+    return out;
+  }
+
+  /**
+   * To decode a Player, rebuilding its board from its Scenario
+   * @throws IOException If the bytes are not a player file of a version this class can read
+   */
+  public static Player decode(ByteBuffer in) throws IOException {
+    if (in.getInt() != PlayerFile.MAGIC) {
+      throw new IOException("Not a player file.");
+    }
+    short version = in.getShort();
+    if (version < 1 || version > PlayerFile.VERSION) {
+      throw new IOException("Unsupported player file version: " + version);
+    }
+
+    String name = PlayerFile.getString(in);
+    Scenario scenario = Scenario.fromKey(PlayerFile.getString(in), null);
+    int currentTurn = in.getInt();
+    long seed = in.getLong();
+    long sequence = (version >= 2) ? in.getLong() : 0;
+    long[] words = new long[in.getShort()];
+    for (int i = 0; i < words.length; i++) {
+      words[i] = in.getLong();
+    }
+    BitSet discovered = BitSet.valueOf(words);
+
+    int numOrgs = in.getInt();
+    List<Organism> orgs = new ArrayList<Organism>(numOrgs);
+    for (int i = 0; i < numOrgs; i++) {
+      String orgName = PlayerFile.getString(in);
+      Species species = SPECIES[in.get()];
+      Sex sex = SEXES[in.get()];
+      boolean alive = in.get() != 0;
+      int tileIndex = in.getInt();
+
+      Trait[] traits = species.getTraits();
+      if (in.get() != traits.length) {
+        throw new IOException("Organism " + orgName + " does not have the Traits of a " + species);
+      }
+      Allele[] alleles = new Allele[TRAITS.length];
+      for (Trait t : traits) {
+        alleles[t.ordinal()] = t.getAlleles()[in.get()];
+      }
+
+      BoardTile tile = (tileIndex == PlayerFile.NOT_PLACED) ? null : scenario.getTile(tileIndex);
+      Organism o = Organism.restore(species, orgName, sex, alleles, alive, tile);
+      if (tile != null) {
+        tile.addOrganism(o);
+      }
+      orgs.add(o);
+    }
+    Player p = new Player(name, scenario, currentTurn, seed, orgs, discovered);
+    p.setJournalSequence(sequence);
+    return p;
+  }
+
+  /**
+   * To write the given Player to the given file, replacing it only once the write is complete
+   * and on disk
+   */
+  public static void write(Player p, Path file) throws IOException {
+    PlayerFile.write(PlayerFile.encode(p), file);
+  }
+
+  /**
+   * To write the given encoded Player to the given file, replacing it only once the write is
+   * complete and on disk
+   */
+  public static void write(ByteBuffer bytes, Path file) throws IOException {
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+      // otherwise a crash could leave the rename on disk without the data it points to
+      channel.force(true);
+    }
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * To read the Player in the given file
+   */
+  public static Player read(Path file) throws IOException {
+    return PlayerFile.decode(PlayerFile.readAll(file));
+  }
+
+  /**
+   * To read the whole of the given file
+   */
+  static ByteBuffer readAll(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer bytes = ByteBuffer.allocate((int) channel.size());
+      while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+        // keep reading until the buffer is full
+      }
+      bytes.flip();
+      return bytes;
+    }
+  }
+
+  private static void putString(ByteBuffer out, byte[] utf8) {
+    out.putShort((short) utf8.length);
+    out.put(utf8);
+  }
+
+  private static String getString(ByteBuffer in) throws IOException {
+    int length = in.getShort() & 0xffff;
+    if (length > in.remaining()) {
+      throw new IOException("Truncated player file.");
+    }
+    byte[] utf8 = new byte[length];
+    in.get(utf8);
+    return new String(utf8, StandardCharsets.UTF_8);
+  }
+}
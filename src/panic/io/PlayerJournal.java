@@ -0,0 +1,513 @@
+package panic.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+import panic.game.Father;
+import panic.game.Player;
+import panic.gene.Allele;
+import panic.gene.Sex;
+import panic.gene.SurvivalTrait;
+import panic.gene.Trait;
+import panic.org.Organism;
+import panic.org.Species;
+import panic.org.TurnDecision;
+
+/**
+ * An append-only journal of the changes made to a Player since its snapshot (player file) was
+ * last written.<br>
+ * Each change is a small record carrying the Player's journal sequence number. Records are
+ * buffered as they happen and appended on #flush() (or taken and appended separately), so a save
+ * costs only the changes made since the last one. Once the journal grows past COMPACT_THRESHOLD
+ * it is folded into a new snapshot on a background thread. Appended records are forced to disk
+ * before a save completes. Snapshots and compacted journals are written beside the old file,
+ * forced to disk and renamed over it, and a snapshot stores the sequence number of the last
+ * change it contains, so a crash at any point leaves a snapshot and a journal that replay to the
+ * latest flushed state.
+ * <br>
+ * Layout (big-endian): magic and version, then records of [length, CRC32, sequence, type, data].
+ * @author Sam Paniccia
+ *
+ */
+public class PlayerJournal {
+
+  /**
+   * The first four bytes of every journal, "PJRN"
+   */
+  public static final int MAGIC = 0x504A524E;
+
+  /**
+   * The version of the format written by this class
+   */
+  public static final short VERSION = 1;
+
+  /**
+   * The size, in bytes, past which a journal is folded into a new snapshot
+   */
+  public static final long COMPACT_THRESHOLD = 64 * 1024;
+
+  private static final int HEADER_SIZE = 4 + 2;
+
+  /**
+   * The size of a record's length and CRC32
+   */
+  private static final int FRAME_SIZE = 2 + 4;
+
+  /**
+   * The most bytes of an Organism's name that are journaled; longer names are cut short
+   */
+  static final int MAX_NAME_SIZE = 1024;
+
+  /**
+   * The largest record; an Organism with a name of MAX_NAME_SIZE bytes and every Trait. Must fit
+   * in a record's 16-bit length.
+   */
+  private static final int MAX_RECORD_SIZE =
+      8 + 1 + 2 + PlayerJournal.MAX_NAME_SIZE + 3 + Trait.values().length;
+
+  // record types
+  private static final byte TURN = 1;
+  private static final byte DEATH = 2;
+  private static final byte MOVE = 3;
+  private static final byte MUTATION = 4;
+  private static final byte ORGANISM = 5;
+  private static final byte PLACEMENT = 6;
+
+  private static final SurvivalTrait[] SURVIVAL_TRAITS = SurvivalTrait.values();
+  private static final Species[] SPECIES = Species.values();
+  private static final Sex[] SEXES = Sex.values();
+  private static final Trait[] TRAITS = Trait.values();
+
+  /**
+   * Folds journals into snapshots, one at a time
+   */
+  private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "journal-compactor");
+    t.setDaemon(true);
+    return t;
+  });
+
+  /**
+   * The player file that this journal continues
+   */
+  private final Path snapshot;
+
+  /**
+   * The journal file
+   */
+  private final Path journal;
+
+  /**
+   * Framed records not yet appended to the journal file
+   */
+  private ByteBuffer pending;
+
+  /**
+   * The record being built
+   */
+  private final ByteBuffer record;
+
+  private final CRC32 crc;
+
+  /**
+   * Whether a fold into a new snapshot is queued or running
+   */
+  private final AtomicBoolean compacting;
+
+  private FileChannel channel;
+
+  /**
+   * To create the journal of the given player file. The journal file is opened (and created if
+   * need be) on first use; any partly-written record left at its end by a crash is then cut off.
+   */
+  public PlayerJournal(Path snapshot, Path journal) {
+    this.snapshot = snapshot;
+    this.journal = journal;
+    this.pending = ByteBuffer.allocate(4096);
+    this.record = ByteBuffer.allocate(PlayerJournal.MAX_RECORD_SIZE);
+    this.crc = new CRC32();
+    this.compacting = new AtomicBoolean();
+  }
+
+  /**
+   * To open the journal file if it is not open
+   */
+  private void ensureOpen() throws IOException {
+    if (this.channel == null || !this.channel.isOpen()) {
+      this.open();
+    }
+  }
+
+  /**
+   * To open the journal file for appending, writing its header if it is new and cutting off any
+   * torn record at its end
+   */
+  private void open() throws IOException {
+    this.channel = FileChannel.open(this.journal, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    if (this.channel.size() < PlayerJournal.HEADER_SIZE) {
+      this.channel.truncate(0);
+      ByteBuffer header = PlayerJournal.header();
+      while (header.hasRemaining()) {
+        this.channel.write(header);
+      }
+    } else {
+      ByteBuffer contents = PlayerFile.readAll(this.journal);
+      long valid = PlayerJournal.validLength(contents);
+      if (valid < this.channel.size()) {
+        Father.log("Cutting off a torn journal record: " + this.journal);
+        this.channel.truncate(valid);
+      }
+    }
+    this.channel.position(this.channel.size());
+  }
+
+  private static ByteBuffer header() {
+    ByteBuffer header = ByteBuffer.allocate(PlayerJournal.HEADER_SIZE);
+    header.putInt(PlayerJournal.MAGIC);
+    header.putShort(PlayerJournal.VERSION);
+    header.flip();
+    return header;
+  }
+
+  // recording
+
+  public synchronized void recordTurn(long sequence, int turn) {
+    this.begin(sequence, PlayerJournal.TURN).putInt(turn);
+    this.end();
+  }
+
+  public synchronized void recordDeath(long sequence, int org, SurvivalTrait cause) {
+    this.begin(sequence, PlayerJournal.DEATH).putInt(org).put((byte) cause.ordinal());
+    this.end();
+  }
+
+  public synchronized void recordMove(long sequence, int org, int tile) {
+    this.begin(sequence, PlayerJournal.MOVE).putInt(org).putInt(tile);
+    this.end();
+  }
+
+  public synchronized void recordMutation(long sequence, int org, Allele allele) {
+    this.begin(sequence, PlayerJournal.MUTATION).putInt(org)
+        .put((byte) allele.whichTrait().ordinal())
+        .put((byte) allele.ordinal());
+    this.end();
+  }
+
+  /**
+   * To record that the given (unplaced) Organism was added to the Player
+   */
+  public synchronized void recordOrganism(long sequence, Organism org) {
+    byte[] name = PlayerJournal.encodeName(org.getName());
+    ByteBuffer out = this.begin(sequence, PlayerJournal.ORGANISM);
+    out.putShort((short) name.length).put(name)
+        .put((byte) org.getSpecies().ordinal())
+        .put((byte) org.getSex().ordinal())
+        .put((byte) (org.isAlive() ? 1 : 0));
+    for (Trait t : org.getSpecies().getTraits()) {
+      out.put((byte) org.getAlleleAt(t).ordinal());
+    }
+    this.end();
+  }
+
+  /**
+   * To encode the given name in UTF-8, cut short to at most MAX_NAME_SIZE bytes without
+   * splitting a character
+   */
+  private static byte[] encodeName(String name) {
+    byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+    if (utf8.length <= PlayerJournal.MAX_NAME_SIZE) {
+      return utf8;
+    }
+    Father.log("Journaling only the first " + PlayerJournal.MAX_NAME_SIZE
+        + " bytes of a long Organism name.");
+    int end = PlayerJournal.MAX_NAME_SIZE;
+    // back up to the first byte of the character that would be split
+    while ((utf8[end] & 0xc0) == 0x80) {
+      end--;
+    }
+    return Arrays.copyOf(utf8, end);
+  }
+
+  public synchronized void recordPlacement(long sequence, int org, int tile) {
+    this.begin(sequence, PlayerJournal.PLACEMENT).putInt(org).putInt(tile);
+    this.end();
+  }
+
+  private ByteBuffer begin(long sequence, byte type) {
+    this.record.clear();
+    return this.record.putLong(sequence).put(type);
+  }
+
+  /**
+   * To frame the record being built and to add it to the pending records
+   */
+  private void end() {
+    this.record.flip();
+    this.crc.reset();
+    this.crc.update(this.record.array(), 0, this.record.limit());
+    int needed = PlayerJournal.FRAME_SIZE + this.record.limit();
+    if (this.pending.remaining() < needed) {
+      ByteBuffer grown = ByteBuffer.allocate(Math.max(this.pending.capacity() * 2,
+          this.pending.position() + needed));
+      this.pending.flip();
+      this.pending = grown.put(this.pending);
+    }
+    this.pending.putShort((short) this.record.limit());
+    this.pending.putInt((int) this.crc.getValue());
+    this.pending.put(this.record);
+  }
+
+  // saving
+
+  /**
+   * To append every pending record to the journal file
+   */
+  public synchronized void flush() throws IOException {
+    this.append(this.takePending());
+  }
+
+  /**
+   * To take every pending record, so that they may be appended later (e.g. on another thread)
+   * @return The framed records, ready for #append(ByteBuffer)
+   */
+  public synchronized ByteBuffer takePending() {
+    this.pending.flip();
+    ByteBuffer taken = ByteBuffer.allocate(this.pending.remaining()).put(this.pending);
+    this.pending.clear();
+    taken.flip();
+    return taken;
+  }
+
+  /**
+   * To append the given records, taken by #takePending(), to the journal file, and to force them
+   * to disk before returning. Records must be appended in the order they were taken.
+   */
+  public synchronized void append(ByteBuffer records) throws IOException {
+    this.ensureOpen();
+    if (!records.hasRemaining()) {
+      return;
+    }
+    while (records.hasRemaining()) {
+      this.channel.write(records);
+    }
+    this.channel.force(true);
+  }
+
+  /**
+   * To retrieve the size of the journal file, in bytes
+   */
+  public synchronized long size() throws IOException {
+    this.ensureOpen();
+    return this.channel.size();
+  }
+
+  public Path getSnapshotPath() {
+    return this.snapshot;
+  }
+
+  public Path getJournalPath() {
+    return this.journal;
+  }
+
+  /**
+   * To fold this journal into a new snapshot on a background thread, unless a fold is already
+   * queued or running
+   */
+  public void compactInBackground() {
+    if (this.compacting.compareAndSet(false, true)) {
+      PlayerJournal.COMPACTOR.execute(() -> {
+        try {
+          this.compact();
+        } catch (IOException e) {
+          Father.log("Journal compaction FAILED! " + e.getMessage());
+          e.printStackTrace();
+        } finally {
+          this.compacting.set(false);
+        }
+      });
+    }
+  }
+
+  /**
+   * To fold the journal file into a new snapshot. The snapshot is rebuilt from the old snapshot
+   * and the journal file rather than from the live Player, so the game may keep changing the
+   * Player (and appending to this journal) meanwhile. Pending records are left pending.
+   */
+  public void compact() throws IOException {
+    long folded;
+    synchronized (this) {
+      this.ensureOpen();
+      folded = this.channel.size();
+    }
+
+    ByteBuffer contents = PlayerFile.readAll(this.journal);
+    contents.limit((int) folded);
+    Player p = PlayerFile.read(this.snapshot);
+    PlayerJournal.replay(p, contents);
+    PlayerFile.write(p, this.snapshot);
+
+    synchronized (this) {
+      ByteBuffer tail = ByteBuffer.allocate((int) (this.channel.size() - folded));
+      while (tail.hasRemaining() && this.channel.read(tail, folded + tail.position()) >= 0) {
+        // keep reading until the tail is full
+      }
+      tail.flip();
+
+      Path temp = this.journal.resolveSibling(this.journal.getFileName() + ".tmp");
+      try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        for (ByteBuffer b : new ByteBuffer[] {PlayerJournal.header(), tail}) {
+          while (b.hasRemaining()) {
+            out.write(b);
+          }
+        }
+        // the new journal must be on disk before it replaces the old one
+        out.force(true);
+      }
+      this.channel.close();
+      Files.move(temp, this.journal, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      this.open();
+    }
+    Father.log("Compacted journal into " + this.snapshot);
+  }
+
+  public synchronized void close() throws IOException {
+    this.flush();
+    this.channel.close();
+  }
+
+  // replaying
+
+  /**
+   * To apply to the given Player every record in the given journal that is newer than the
+   * Player's journal sequence, stopping at the first torn or corrupt record
+   * @return The number of records applied
+   */
+  public static int replay(Player p, ByteBuffer journal) throws IOException {
+    if (journal.remaining() < PlayerJournal.HEADER_SIZE
+        || journal.getInt() != PlayerJournal.MAGIC) {
+      throw new IOException("Not a player journal.");
+    }
+    short version = journal.getShort();
+    if (version != PlayerJournal.VERSION) {
+      throw new IOException("Unsupported player journal version: " + version);
+    }
+
+    int applied = 0;
+    ByteBuffer record;
+    while ((record = PlayerJournal.nextRecord(journal)) != null) {
+      long sequence = record.getLong();
+      if (sequence <= p.getJournalSequence()) {
+        continue;
+      }
+      PlayerJournal.apply(p, record);
+      p.setJournalSequence(sequence);
+      applied++;
+    }
+    return applied;
+  }
+
+  /**
+   * To apply the change in the given record (positioned after its sequence number)
+   */
+  private static void apply(Player p, ByteBuffer record) {
+    List<Organism> orgs = p.getOrganisms();
+    byte type = record.get();
+    switch (type) {
+    case TURN:
+      p.restoreTurn(record.getInt());
+      break;
+    case DEATH: {
+      Organism dead = orgs.get(record.getInt());
+      dead.applyTurn(TurnDecision.death(SURVIVAL_TRAITS[record.get()]));
+      break;
+    }
+    case MOVE: {
+      Organism moved = orgs.get(record.getInt());
+      moved.applyTurn(TurnDecision.move(p.getScenario().getTile(record.getInt())));
+      break;
+    }
+    case MUTATION: {
+      Organism mutated = orgs.get(record.getInt());
+      Trait which = TRAITS[record.get()];
+      Allele allele = which.getAlleles()[record.get()];
+      mutated.setGene(which, allele);
+      p.discover(allele);
+      break;
+    }
+    case ORGANISM: {
+      byte[] name = new byte[record.getShort() & 0xffff];
+      record.get(name);
+      Species species = SPECIES[record.get()];
+      Sex sex = SEXES[record.get()];
+      boolean alive = record.get() != 0;
+      Allele[] alleles = new Allele[TRAITS.length];
+      for (Trait t : species.getTraits()) {
+        alleles[t.ordinal()] = t.getAlleles()[record.get()];
+      }
+      p.addOrganism(Organism.restore(species, new String(name, StandardCharsets.UTF_8), sex,
+          alleles, alive, null));
+      break;
+    }
+    case PLACEMENT: {
+      Organism placed = orgs.get(record.getInt());
+      p.placeOrganism(placed, p.getScenario().getTile(record.getInt()));
+      break;
+    }
+    default:
+      throw new IllegalArgumentException("Illegal journal record type: " + type);
+    }
+  }
+
+  /**
+   * To read the next intact record from the given journal
+   * @return The record, or null if there are no more intact records
+   */
+  private static ByteBuffer nextRecord(ByteBuffer journal) {
+    if (journal.remaining() < PlayerJournal.FRAME_SIZE) {
+      return null;
+    }
+    int start = journal.position();
+    int length = journal.getShort(start) & 0xffff;
+    int checksum = journal.getInt(start + 2);
+    if (journal.remaining() < PlayerJournal.FRAME_SIZE + length) {
+      return null;
+    }
+
+    CRC32 crc = new CRC32();
+    ByteBuffer record = journal.duplicate();
+    record.position(start + PlayerJournal.FRAME_SIZE).limit(start + PlayerJournal.FRAME_SIZE + length);
+    crc.update(record.duplicate());
+    if ((int) crc.getValue() != checksum) {
+      return null;
+    }
+    journal.position(start + PlayerJournal.FRAME_SIZE + length);
+    return record.slice();
+  }
+
+  /**
+   * To find the length of the intact part of the given journal: its header and every record up
+   * to the first torn or corrupt one
+   */
+  private static long validLength(ByteBuffer journal) {
+    journal.position(PlayerJournal.HEADER_SIZE);
+    while (PlayerJournal.nextRecord(journal) != null) {
+      // skip over every intact record
+    }
+    return journal.position();
+  }
+}
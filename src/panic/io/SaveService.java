@@ -0,0 +1,205 @@
+package panic.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import panic.game.Father;
+import panic.game.Player;
+import panic.jfr.PlayerSavedEvent;
+import panic.metrics.TurnMetrics;
+
+/**
+ * Saves Players on dedicated background threads, so that neither the EDT nor the turn loop
+ * waits on the disk.<br>
+ * What is saved is captured on the calling thread when the save is requested: the Player's
+ * journaled changes since its last save, or, for a Player with no journal yet, its whole
+ * encoded player file. Back-to-back saves of the same Player that are still waiting to be
+ * written are coalesced into one write.<br>
+ * Each player file's saves are always written by the same writer thread, in the order requested;
+ * different Players may be written by different writers at once, so that when many games are
+ * hosted, a slow write of one does not hold up the others.
+ * @author Sam Paniccia
+ *
+ */
+public class SaveService {
+
+  /**
+   * The number of writer threads
+   */
+  private static final int NUM_WRITERS =
+      Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+  private static final SaveService instance = new SaveService();
+
+  /**
+   * The threads that saves are written on; every save of a player file is written on the one its
+   * path hashes to
+   */
+  private final ExecutorService[] writers;
+
+  /**
+   * The save of each Player waiting to be written, which later saves of the same Player are
+   * merged into, by the Player's journal
+   */
+  private final HashMap<PlayerJournal, PendingSave> queued;
+
+  private SaveService() {
+    this.writers = new ExecutorService[SaveService.NUM_WRITERS];
+    for (int i = 0; i < this.writers.length; i++) {
+      String name = "save-writer-" + i;
+      this.writers[i] = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+      });
+    }
+    this.queued = new HashMap<PlayerJournal, PendingSave>();
+  }
+
+  /**
+   * To get the singleton instance of this class
+   */
+  public static SaveService getInstance() {
+    return SaveService.instance;
+  }
+
+  /**
+   * To save the given Player as it is now
+   * @return A future completed once the save is on disk
+   */
+  public CompletableFuture<Void> save(Player p) {
+    ByteBuffer snapshot = null;
+    PlayerJournal journal = p.getJournal();
+    if (journal == null) {
+      // the first save of a Player writes its whole player file and starts its journal
+      snapshot = PlayerFile.encode(p);
+      journal = new PlayerJournal(DataIO.getPlayerPath(p.getName()),
+          DataIO.getJournalPath(p.getName()));
+      p.setJournal(journal);
+    }
+    ByteBuffer records = journal.takePending();
+
+    synchronized (this) {
+      PendingSave waiting = this.queued.get(journal);
+      if (waiting != null) {
+        waiting.merge(records);
+        return waiting.done;
+      }
+      PendingSave save = new PendingSave(journal, snapshot, records);
+      this.queued.put(journal, save);
+      this.writerOf(journal).execute(() -> this.write(save));
+      return save.done;
+    }
+  }
+
+  /**
+   * To wait until every save requested so far has been written
+   */
+  public void flush() {
+    CompletableFuture<?>[] flushed = new CompletableFuture<?>[this.writers.length];
+    for (int i = 0; i < this.writers.length; i++) {
+      flushed[i] = CompletableFuture.runAsync(() -> { }, this.writers[i]);
+    }
+    CompletableFuture.allOf(flushed).join();
+  }
+
+  /**
+   * To get the writer that every save of the Player with the given journal is written on. The
+   * writer is picked by the player file's path, so that saves of the same file are written in
+   * order even by journals opened one after another.
+   */
+  private ExecutorService writerOf(PlayerJournal journal) {
+    int hash = journal.getSnapshotPath().toAbsolutePath().normalize().hashCode();
+    return this.writers[(hash & 0x7fffffff) % this.writers.length];
+  }
+
+  /**
+   * To write the given save (on its writer thread)
+   */
+  private void write(PendingSave save) {
+    synchronized (this) {
+      // from here on, later saves are written separately
+      if (this.queued.get(save.journal) == save) {
+        this.queued.remove(save.journal);
+      }
+    }
+    try {
+      Father.log("Attempting to write player data: " + save.journal.getSnapshotPath());
+      PlayerSavedEvent event = new PlayerSavedEvent();
+      event.begin();
+      long bytes = save.records.remaining();
+      if (save.snapshot != null) {
+        bytes += save.snapshot.remaining();
+        PlayerFile.write(save.snapshot, save.journal.getSnapshotPath());
+        // the new player file already holds everything an old journal may contain
+        Files.deleteIfExists(save.journal.getJournalPath());
+      }
+      save.journal.append(save.records);
+      if (save.journal.size() > PlayerJournal.COMPACT_THRESHOLD) {
+        save.journal.compactInBackground();
+      }
+      event.end();
+      if (event.shouldCommit()) {
+        event.player = save.journal.getSnapshotPath().getFileName().toString();
+        event.bytes = bytes;
+        event.snapshot = save.snapshot != null;
+        event.commit();
+      }
+      TurnMetrics.SAVE_SIZE.record(bytes);
+      TurnMetrics.SAVE_LATENCY.recordSince(save.requested);
+      Father.log("Write succeeded!");
+      save.done.complete(null);
+    } catch (IOException e) {
+      Father.log("Write FAILED!" + e.getMessage());
+      e.printStackTrace();
+      save.done.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * A save that has been requested but not yet written
+   */
+  private static class PendingSave {
+    private final PlayerJournal journal;
+
+    /**
+     * The whole encoded player file, or null if only journaled changes are saved
+     */
+    private final ByteBuffer snapshot;
+
+    /**
+     * The journal records to append
+     */
+    private ByteBuffer records;
+
+    private final CompletableFuture<Void> done;
+
+    /**
+     * The System#nanoTime() at which this save was requested
+     */
+    private final long requested;
+
+    PendingSave(PlayerJournal journal, ByteBuffer snapshot, ByteBuffer records) {
+      this.requested = System.nanoTime();
+      this.journal = journal;
+      this.snapshot = snapshot;
+      this.records = records;
+      this.done = new CompletableFuture<Void>();
+    }
+
+    /**
+     * To add the records of a later save to this one
+     */
+    void merge(ByteBuffer later) {
+      ByteBuffer merged = ByteBuffer.allocate(this.records.remaining() + later.remaining());
+      merged.put(this.records).put(later);
+      merged.flip();
+      this.records = merged;
+    }
+  }
+}
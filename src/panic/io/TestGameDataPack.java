@@ -0,0 +1,139 @@
+package panic.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import panic.gene.CoefficientTable;
+
+public class TestGameDataPack {
+
+  /**
+   * The offset of the layout digest in a pack
+   */
+  private static final int DIGEST_OFFSET = 4 + 2;
+
+  private static CoefficientTable fromText;
+
+  @BeforeClass
+  public static void init() {
+    DataIO.loadGameDataFromText();
+    fromText = CoefficientTable.getInstance();
+  }
+
+  private ByteBuffer encode(CoefficientTable table) {
+    ByteBuffer bytes = ByteBuffer.allocate(table.getEncodedSize());
+    table.writeTo(bytes);
+    bytes.flip();
+    return bytes;
+  }
+
+  /**
+   * To write a pack of the text tables into a new directory, as compiled from stand-in text
+   * files in the same directory
+   */
+  private Path writePack() throws Exception {
+    Path gamedata = Files.createTempDirectory("gamedata");
+    for (String source : GameDataPack.SOURCES) {
+      Files.write(gamedata.resolve(source), source.getBytes(StandardCharsets.UTF_8));
+    }
+    Path pack = GameDataPack.getPackPath(gamedata);
+    GameDataPack.write(fromText, new GameDataPack.Sources(gamedata), pack);
+    return pack;
+  }
+
+  /**
+   * To read the given pack against the text files beside it
+   */
+  private Optional<CoefficientTable> read(Path pack) throws Exception {
+    return GameDataPack.read(pack, new GameDataPack.Sources(pack.getParent()));
+  }
+
+  /**
+   * To flip every bit of the byte at the given offset of the given file
+   */
+  private void damage(Path file, int offset) throws Exception {
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[offset] ^= 0xff;
+    Files.write(file, bytes);
+  }
+
+  @Test
+  public void testIntactPackIsRead() throws Exception {
+    Path pack = this.writePack();
+    GameDataPack.Sources sources = new GameDataPack.Sources(pack.getParent());
+    Optional<CoefficientTable> read = GameDataPack.read(pack, sources);
+    assertTrue(read.isPresent());
+    assertEquals(this.encode(fromText), this.encode(read.get()));
+    // the text files are unchanged, so they are not read
+    assertFalse(sources.isChecksummed());
+  }
+
+  @Test
+  public void testStalePackIsIgnored() throws Exception {
+    Path pack = this.writePack();
+    Path source = pack.resolveSibling(GameDataPack.SOURCES[0]);
+    Files.write(source, "changed".getBytes(StandardCharsets.UTF_8));
+    assertFalse(this.read(pack).isPresent());
+  }
+
+  @Test
+  public void testTouchedSourcesAreChecksummed() throws Exception {
+    Path pack = this.writePack();
+    Path source = pack.resolveSibling(GameDataPack.SOURCES[0]);
+    Files.setLastModifiedTime(source,
+        FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 60000));
+    GameDataPack.Sources sources = new GameDataPack.Sources(pack.getParent());
+    assertTrue(GameDataPack.read(pack, sources).isPresent());
+    assertTrue(sources.isChecksummed());
+  }
+
+  @Test
+  public void testDamagedPackIsIgnored() throws Exception {
+    Path pack = this.writePack();
+    this.damage(pack, (int) Files.size(pack) - 3);
+    assertFalse(this.read(pack).isPresent());
+
+    pack = this.writePack();
+    byte[] bytes = Files.readAllBytes(pack);
+    Files.write(pack, Arrays.copyOf(bytes, bytes.length - 8));
+    assertFalse(this.read(pack).isPresent());
+  }
+
+  @Test
+  public void testPackOfOtherLayoutIsIgnored() throws Exception {
+    Path pack = this.writePack();
+    this.damage(pack, DIGEST_OFFSET);
+    assertFalse(this.read(pack).isPresent());
+
+    pack = this.writePack();
+    this.damage(pack, 5);
+    assertFalse(this.read(pack).isPresent());
+  }
+
+  @Test
+  public void testLoadFallsBackToTextAndRewritesPack() throws Exception {
+    Path gamedata = Paths.get(DataIO.GAMEDATA_DIR);
+    Path pack = GameDataPack.getPackPath(gamedata);
+    GameDataPack.write(fromText, new GameDataPack.Sources(gamedata), pack);
+    this.damage(pack, (int) Files.size(pack) - 3);
+
+    DataIO.loadGameData();
+    assertEquals(this.encode(fromText), this.encode(CoefficientTable.getInstance()));
+    Optional<CoefficientTable> rewritten = this.read(pack);
+    assertTrue(rewritten.isPresent());
+    assertEquals(this.encode(fromText), this.encode(rewritten.get()));
+  }
+}
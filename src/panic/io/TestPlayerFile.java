@@ -0,0 +1,69 @@
+package panic.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import panic.game.Player;
+import panic.gene.Sex;
+import panic.gene.Trait;
+import panic.org.OBactCyano;
+import panic.org.Organism;
+
+public class TestPlayerFile {
+
+  @BeforeClass
+  public static void init() {
+    DataIO.loadGameData();
+  }
+  
+  private Player createPlayer() {
+    Player p = new Player("tester", null);
+    Organism placed = new OBactCyano("placed", Sex.female);
+    placed.placeOnTile(p.getScenario().getTile(0));
+    p.getScenario().getTile(0).addOrganism(placed);
+    p.addOrganism(placed);
+    p.addOrganism(new OBactCyano("unplaced", Sex.male));
+    p.mutateOrganism(placed, 1);
+    return p;
+  }
+  
+  @Test
+  public void testRoundTrip() throws Exception {
+    Player before = this.createPlayer();
+    ByteBuffer bytes = PlayerFile.encode(before);
+    assertTrue(PlayerFile.isPlayerFile(bytes));
+    Player after = PlayerFile.decode(bytes);
+    
+    assertEquals(before.getName(), after.getName());
+    assertEquals(before.getCurrentTurn(), after.getCurrentTurn());
+    assertEquals(before.getSeed(), after.getSeed());
+    assertEquals(before.getScenario().getKey(), after.getScenario().getKey());
+    assertEquals(before.getDiscoveredAlleles(), after.getDiscoveredAlleles());
+    
+    List<Organism> was = before.getOrganisms();
+    List<Organism> is = after.getOrganisms();
+    assertEquals(was.size(), is.size());
+    for (int i = 0; i < was.size(); i++) {
+      assertEquals(was.get(i).getName(), is.get(i).getName());
+      assertEquals(was.get(i).getSpecies(), is.get(i).getSpecies());
+      assertEquals(was.get(i).getSex(), is.get(i).getSex());
+      assertEquals(was.get(i).isPlacedOnBoard(), is.get(i).isPlacedOnBoard());
+      for (Trait t : was.get(i).getSpecies().getTraits()) {
+        assertEquals(was.get(i).getAlleleAt(t), is.get(i).getAlleleAt(t));
+      }
+    }
+    assertEquals(1, after.getScenario().getTile(0).getOrgNamesOnTile().length);
+  }
+  
+  @Test
+  public void testLegacyPlayerFileLoads() {
+    assertNotNull(DataIO.loadPlayer("moose"));
+  }
+}
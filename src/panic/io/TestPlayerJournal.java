@@ -0,0 +1,174 @@
+package panic.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import panic.game.Player;
+import panic.gene.Allele;
+import panic.gene.Sex;
+import panic.gene.SurvivalTrait;
+import panic.gene.Trait;
+import panic.metrics.TurnMetrics;
+import panic.org.OBactCyano;
+import panic.org.Organism;
+import panic.tile.BoardTile;
+
+public class TestPlayerJournal {
+
+  @BeforeClass
+  public static void init() {
+    DataIO.loadGameData();
+  }
+  
+  /**
+   * To snapshot a new Player into the given directory and to play a few turns of changes into
+   * its journal
+   */
+  private Player play(Path dir) throws Exception {
+    Player p = new Player("journaled", null);
+    PlayerFile.write(p, dir.resolve("p.plr"));
+    p.setJournal(new PlayerJournal(dir.resolve("p.plr"), dir.resolve("p.jrn")));
+    
+    for (int i = 0; i < 20; i++) {
+      Organism o = new OBactCyano("o" + i, (i % 2 == 0) ? Sex.male : Sex.female);
+      p.addOrganism(o);
+      int tile = i;
+      while (!p.placeOrganism(o, p.getScenario().getTile(tile))) {
+        tile++;
+      }
+      p.mutateOrganism(o, 1);
+    }
+    for (int turn = 0; turn < 10; turn++) {
+      p.nextTurn();
+    }
+    p.getJournal().flush();
+    return p;
+  }
+  
+  private void assertSameState(Player expected, Player actual) {
+    assertEquals(expected.getCurrentTurn(), actual.getCurrentTurn());
+    assertEquals(expected.getJournalSequence(), actual.getJournalSequence());
+    assertEquals(expected.getDiscoveredAlleles(), actual.getDiscoveredAlleles());
+    List<Organism> was = expected.getOrganisms();
+    List<Organism> is = actual.getOrganisms();
+    assertEquals(was.size(), is.size());
+    for (int i = 0; i < was.size(); i++) {
+      assertEquals(was.get(i).isAlive(), is.get(i).isAlive());
+      assertEquals(expected.getScenario().getTileIndex(was.get(i).getTile()), 
+          actual.getScenario().getTileIndex(is.get(i).getTile()));
+      for (Trait t : was.get(i).getSpecies().getTraits()) {
+        assertEquals(was.get(i).getAlleleAt(t), is.get(i).getAlleleAt(t));
+      }
+    }
+    for (int i = 0; i < expected.getScenario().getNumTiles(); i++) {
+      BoardTile wasTile = expected.getScenario().getTile(i);
+      BoardTile isTile = actual.getScenario().getTile(i);
+      assertEquals(wasTile.getNumOrganisms(), isTile.getNumOrganisms());
+      assertEquals(wasTile.getNumDead(), isTile.getNumDead());
+    }
+  }
+  
+  @Test
+  public void testReplayMatchesLivePlayer() throws Exception {
+    Path dir = Files.createTempDirectory("journal");
+    Player live = this.play(dir);
+    
+    Player loaded = PlayerFile.read(dir.resolve("p.plr"));
+    PlayerJournal.replay(loaded, PlayerFile.readAll(dir.resolve("p.jrn")));
+    this.assertSameState(live, loaded);
+  }
+  
+  @Test
+  public void testReplayCountsNoDeaths() throws Exception {
+    Path dir = Files.createTempDirectory("journal");
+    Player live = this.play(dir);
+    assertTrue(live.getOrganisms().stream().anyMatch(o -> !o.isAlive()));
+    
+    long counted = TurnMetrics.deathsOf(SurvivalTrait.predation).get()
+        + TurnMetrics.deathsOf(SurvivalTrait.appetite).get();
+    Player loaded = PlayerFile.read(dir.resolve("p.plr"));
+    PlayerJournal.replay(loaded, PlayerFile.readAll(dir.resolve("p.jrn")));
+    assertEquals(counted, TurnMetrics.deathsOf(SurvivalTrait.predation).get()
+        + TurnMetrics.deathsOf(SurvivalTrait.appetite).get());
+  }
+  
+  @Test
+  public void testTornRecordIsIgnored() throws Exception {
+    Path dir = Files.createTempDirectory("journal");
+    Player live = this.play(dir);
+    live.getJournal().close();
+    Files.write(dir.resolve("p.jrn"), new byte[] {0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+    
+    Player loaded = PlayerFile.read(dir.resolve("p.plr"));
+    PlayerJournal.replay(loaded, PlayerFile.readAll(dir.resolve("p.jrn")));
+    this.assertSameState(live, loaded);
+  }
+  
+  @Test
+  public void testCompactionFoldsJournalIntoSnapshot() throws Exception {
+    Path dir = Files.createTempDirectory("journal");
+    Player live = this.play(dir);
+    live.getJournal().compact();
+    
+    assertEquals(6, Files.size(dir.resolve("p.jrn")));
+    this.assertSameState(live, PlayerFile.read(dir.resolve("p.plr")));
+    
+    // changes after the fold are journaled on top of the new snapshot
+    live.nextTurn();
+    live.getJournal().flush();
+    Player loaded = PlayerFile.read(dir.resolve("p.plr"));
+    ByteBuffer journal = PlayerFile.readAll(dir.resolve("p.jrn"));
+    PlayerJournal.replay(loaded, journal);
+    this.assertSameState(live, loaded);
+  }
+  
+  @Test
+  public void testEngineeringIsReplayed() throws Exception {
+    Path dir = Files.createTempDirectory("journal");
+    Player live = this.play(dir);
+    Organism o = live.getOrganisms().get(0);
+    Trait which = o.getSpecies().getTraits()[0];
+    Allele[] alleles = which.getAlleles();
+    Allele engineered = alleles[(o.getAlleleAt(which).ordinal() + 1) % alleles.length];
+    live.engineerOrganism(o, which, engineered);
+    live.nextTurn();
+    live.getJournal().flush();
+    
+    Player loaded = PlayerFile.read(dir.resolve("p.plr"));
+    PlayerJournal.replay(loaded, PlayerFile.readAll(dir.resolve("p.jrn")));
+    assertEquals(engineered, loaded.getOrganisms().get(0).getAlleleAt(which));
+    this.assertSameState(live, loaded);
+  }
+  
+  @Test
+  public void testLongNameIsCutShort() throws Exception {
+    Path dir = Files.createTempDirectory("journal");
+    Player live = this.play(dir);
+    StringBuilder name = new StringBuilder();
+    while (name.length() < 40000) {
+      // two bytes in UTF-8, so that the name is longer than a record may be
+      name.append('\u00e9');
+    }
+    live.addOrganism(new OBactCyano(name.toString(), Sex.male));
+    live.nextTurn();
+    live.getJournal().flush();
+    
+    Player loaded = PlayerFile.read(dir.resolve("p.plr"));
+    PlayerJournal.replay(loaded, PlayerFile.readAll(dir.resolve("p.jrn")));
+    // the records after the long name are not taken for a torn record
+    assertEquals(live.getCurrentTurn(), loaded.getCurrentTurn());
+    List<Organism> orgs = loaded.getOrganisms();
+    String cut = orgs.get(orgs.size() - 1).getName();
+    assertEquals(PlayerJournal.MAX_NAME_SIZE / 2, cut.length());
+    assertTrue(name.toString().startsWith(cut));
+  }
+}
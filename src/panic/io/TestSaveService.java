@@ -0,0 +1,46 @@
+package panic.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import panic.game.Player;
+import panic.gene.Sex;
+import panic.org.OBactCyano;
+
+public class TestSaveService {
+  
+  private static final String NAME = "save-service-test";
+
+  @BeforeClass
+  public static void init() {
+    DataIO.loadGameData();
+  }
+  
+  @After
+  public void cleanUp() throws Exception {
+    Files.deleteIfExists(DataIO.getPlayerPath(NAME));
+    Files.deleteIfExists(DataIO.getJournalPath(NAME));
+  }
+  
+  @Test
+  public void testSavesReachDiskInOrder() throws Exception {
+    Player p = new Player(NAME, null);
+    SaveService.getInstance().save(p);
+    for (int i = 0; i < 5; i++) {
+      p.addOrganism(new OBactCyano("o" + i, Sex.female));
+      p.nextTurn();
+      SaveService.getInstance().save(p);
+    }
+    SaveService.getInstance().save(p).get();
+    
+    Player loaded = DataIO.loadPlayer(NAME);
+    assertEquals(p.getCurrentTurn(), loaded.getCurrentTurn());
+    assertEquals(p.getOrganisms().size(), loaded.getOrganisms().size());
+    assertEquals(p.getJournalSequence(), loaded.getJournalSequence());
+  }
+}
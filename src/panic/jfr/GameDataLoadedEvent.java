@@ -0,0 +1,24 @@
+package panic.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded by the DataIO#load*Values methods for every game data file read
+ * @author Sam Paniccia
+ *
+ */
+@Name("panic.GameDataLoaded")
+@Label("Game Data Loaded")
+@Category({ "Darwin's Playground", "Game Data" })
+@StackTrace(false)
+public class GameDataLoadedEvent extends jdk.jfr.Event {
+
+  @Label("File")
+  public String file;
+
+  @Label("Entries")
+  public int entries;
+}
@@ -0,0 +1,29 @@
+package panic.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded by DataIO#loadPlayer(String) for every player file read, journal included
+ * @author Sam Paniccia
+ *
+ */
+@Name("panic.PlayerLoaded")
+@Label("Player Loaded")
+@Category({ "Darwin's Playground", "Saves" })
+@StackTrace(false)
+public class PlayerLoadedEvent extends jdk.jfr.Event {
+
+  @Label("Player")
+  public String player;
+
+  @Label("Bytes")
+  @DataAmount
+  public long bytes;
+
+  @Label("Organisms")
+  public int organisms;
+}
@@ -0,0 +1,31 @@
+package panic.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded for every write of a player file or of its journaled changes
+ * @author Sam Paniccia
+ *
+ */
+@Name("panic.PlayerSaved")
+@Label("Player Saved")
+@Category({ "Darwin's Playground", "Saves" })
+@StackTrace(false)
+public class PlayerSavedEvent extends jdk.jfr.Event {
+
+  @Label("Player")
+  public String player;
+
+  @Label("Bytes")
+  @DataAmount
+  public long bytes;
+
+  @Label("Snapshot")
+  @Description("Whether the whole player file was written, rather than journaled changes only")
+  public boolean snapshot;
+}
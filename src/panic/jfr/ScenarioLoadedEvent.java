@@ -0,0 +1,24 @@
+package panic.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded by DataIO#readTileGrid(String) for every Scenario board read
+ * @author Sam Paniccia
+ *
+ */
+@Name("panic.ScenarioLoaded")
+@Label("Scenario Loaded")
+@Category({ "Darwin's Playground", "Game Data" })
+@StackTrace(false)
+public class ScenarioLoadedEvent extends jdk.jfr.Event {
+
+  @Label("Scenario")
+  public String scenario;
+
+  @Label("Tiles")
+  public int tiles;
+}
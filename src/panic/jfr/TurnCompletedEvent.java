@@ -0,0 +1,31 @@
+package panic.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded by GameController#nextTurn() for every turn the player ends, lasting from the end of
+ * the turn to its save being requested
+ * @author Sam Paniccia
+ *
+ */
+@Name("panic.TurnCompleted")
+@Label("Turn Completed")
+@Category({ "Darwin's Playground", "Turns" })
+@Description("A turn of the player's whole population")
+@StackTrace(false)
+public class TurnCompletedEvent extends jdk.jfr.Event {
+
+  @Label("Turn")
+  public int turn;
+
+  @Label("Population")
+  @Description("The number of living Organisms after the turn")
+  public int population;
+
+  @Label("Deaths")
+  public int deaths;
+}
@@ -0,0 +1,45 @@
+package panic.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count that may be added to from any number of threads at once without contention
+ * @author Sam Paniccia
+ *
+ */
+public class Counter {
+
+  private final String name;
+
+  private final LongAdder count;
+
+  Counter(String name) {
+    this.name = name;
+    this.count = new LongAdder();
+  }
+
+  public void increment() {
+    this.count.increment();
+  }
+
+  public void add(long amount) {
+    this.count.add(amount);
+  }
+
+  public long get() {
+    return this.count.sum();
+  }
+
+  public String getName() {
+    return this.name;
+  }
+
+  void reset() {
+    this.count.reset();
+  }
+
+  @Override
+  public String toString() {
+    return this.name + ": " + this.get();
+  }
+}
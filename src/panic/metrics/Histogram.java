@@ -0,0 +1,166 @@
+package panic.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A distribution of non-negative values (e.g. durations in nanoseconds) from which percentiles
+ * may be read.<br>
+ * Values are counted in log-linear buckets: exact below 16, and above that 8 buckets per power
+ * of two, so a percentile is never more than 12.5% above the true value. Recording is a few
+ * atomic adds and never allocates, so it is safe on the turn loop and from many threads.
+ * @author Sam Paniccia
+ *
+ */
+public class Histogram {
+
+  /**
+   * The number of buckets per power of two, as a power of two
+   */
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /**
+   * Values below this are counted exactly
+   */
+  private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+
+  private static final int NUM_BUCKETS =
+      LINEAR_LIMIT + (63 - (SUB_BUCKET_BITS + 1)) * SUB_BUCKETS;
+
+  private final String name;
+
+  /**
+   * Whether the values are durations in nanoseconds, rather than plain amounts
+   */
+  private final boolean isTimer;
+
+  private final AtomicLongArray buckets;
+  private final AtomicLong count;
+  private final AtomicLong sum;
+  private final AtomicLong max;
+
+  Histogram(String name, boolean isTimer) {
+    this.name = name;
+    this.isTimer = isTimer;
+    this.buckets = new AtomicLongArray(Histogram.NUM_BUCKETS);
+    this.count = new AtomicLong();
+    this.sum = new AtomicLong();
+    this.max = new AtomicLong();
+  }
+
+  /**
+   * To record one value; negative values are recorded as 0
+   */
+  public void record(long value) {
+    long v = Math.max(value, 0);
+    this.buckets.incrementAndGet(Histogram.bucketOf(v));
+    this.count.incrementAndGet();
+    this.sum.addAndGet(v);
+    this.max.accumulateAndGet(v, Math::max);
+  }
+
+  /**
+   * To record the time elapsed since the given System#nanoTime()
+   */
+  public void recordSince(long startNanos) {
+    this.record(System.nanoTime() - startNanos);
+  }
+
+  private static int bucketOf(long v) {
+    if (v < Histogram.LINEAR_LIMIT) {
+      return (int) v;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(v);
+    int sub = (int) (v >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return LINEAR_LIMIT + (exponent - (SUB_BUCKET_BITS + 1)) * SUB_BUCKETS + sub;
+  }
+
+  /**
+   * To get the largest value counted in the given bucket
+   */
+  private static long highestOf(int bucket) {
+    if (bucket < Histogram.LINEAR_LIMIT) {
+      return bucket;
+    }
+    int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+    long sub = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+    int shift = exponent - SUB_BUCKET_BITS;
+    return ((SUB_BUCKETS + sub) << shift) + (1L << shift) - 1;
+  }
+
+  /**
+   * To get the value that the given fraction of recorded values are at or below
+   * @param fraction Between 0 and 1, e.g. 0.99 for the 99th percentile
+   * @return The percentile, or 0 if nothing has been recorded
+   */
+  public long getPercentile(double fraction) {
+    long total = this.count.get();
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(fraction * total));
+    long seen = 0;
+    for (int i = 0; i < Histogram.NUM_BUCKETS; i++) {
+      seen += this.buckets.get(i);
+      if (seen >= rank) {
+        return Math.min(Histogram.highestOf(i), this.getMax());
+      }
+    }
+    return this.getMax();
+  }
+
+  public long getCount() {
+    return this.count.get();
+  }
+
+  public long getSum() {
+    return this.sum.get();
+  }
+
+  public long getMax() {
+    return this.max.get();
+  }
+
+  public double getMean() {
+    long total = this.count.get();
+    return (total == 0) ? 0 : (double) this.sum.get() / total;
+  }
+
+  public String getName() {
+    return this.name;
+  }
+
+  public boolean isTimer() {
+    return this.isTimer;
+  }
+
+  void reset() {
+    for (int i = 0; i < Histogram.NUM_BUCKETS; i++) {
+      this.buckets.set(i, 0);
+    }
+    this.count.set(0);
+    this.sum.set(0);
+    this.max.set(0);
+  }
+
+  @Override
+  public String toString() {
+    return this.name + ": n=" + this.getCount()
+        + " mean=" + this.format(this.getMean())
+        + " p50=" + this.format(this.getPercentile(0.50))
+        + " p90=" + this.format(this.getPercentile(0.90))
+        + " p99=" + this.format(this.getPercentile(0.99))
+        + " max=" + this.format(this.getMax());
+  }
+
+  /**
+   * To format the given value, in milliseconds if this is a timer
+   */
+  private String format(double value) {
+    if (this.isTimer) {
+      return String.format("%.3fms", value / 1e6);
+    }
+    return String.format("%.0f", value);
+  }
+}
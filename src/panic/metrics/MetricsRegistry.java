@@ -0,0 +1,91 @@
+package panic.metrics;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every Counter and Histogram in the game, by name, so that they may be looked up and reported
+ * from anywhere (the game's text panel, the headless runners).<br>
+ * Metrics are created on first use; code on hot paths should look its metrics up once and keep
+ * them (see TurnMetrics) rather than look them up by name each time.
+ * @author Sam Paniccia
+ *
+ */
+public class MetricsRegistry {
+
+  private static final MetricsRegistry instance = new MetricsRegistry();
+
+  private final ConcurrentHashMap<String, Counter> counters;
+
+  private final ConcurrentHashMap<String, Histogram> histograms;
+
+  private MetricsRegistry() {
+    this.counters = new ConcurrentHashMap<String, Counter>();
+    this.histograms = new ConcurrentHashMap<String, Histogram>();
+  }
+
+  /**
+   * To get the singleton instance of this class
+   */
+  public static MetricsRegistry getInstance() {
+    return MetricsRegistry.instance;
+  }
+
+  /**
+   * To get the Counter of the given name, creating it if need be
+   */
+  public Counter counter(String name) {
+    return this.counters.computeIfAbsent(name, n -> new Counter(n));
+  }
+
+  /**
+   * To get the Histogram of durations, in nanoseconds, of the given name, creating it if need be
+   */
+  public Histogram timer(String name) {
+    return this.histograms.computeIfAbsent(name, n -> new Histogram(n, true));
+  }
+
+  /**
+   * To get the Histogram of plain amounts of the given name, creating it if need be
+   */
+  public Histogram histogram(String name) {
+    return this.histograms.computeIfAbsent(name, n -> new Histogram(n, false));
+  }
+
+  /**
+   * To look up the Counter of the given name, if it exists
+   */
+  public Optional<Counter> getCounter(String name) {
+    return Optional.ofNullable(this.counters.get(name));
+  }
+
+  /**
+   * To look up the Histogram of the given name, if it exists
+   */
+  public Optional<Histogram> getHistogram(String name) {
+    return Optional.ofNullable(this.histograms.get(name));
+  }
+
+  /**
+   * To zero every metric, e.g. between runs
+   */
+  public void reset() {
+    this.counters.values().forEach(c -> c.reset());
+    this.histograms.values().forEach(h -> h.reset());
+  }
+
+  /**
+   * To describe every metric, one per line, in order of name
+   */
+  public String report() {
+    TreeMap<String, Object> sorted = new TreeMap<String, Object>(this.counters);
+    sorted.putAll(this.histograms);
+    StringBuilder s = new StringBuilder();
+    for (Map.Entry<String, Object> e : sorted.entrySet()) {
+      s.append(e.getValue()).append('\n');
+    }
+    return s.toString();
+  }
+}
@@ -0,0 +1,35 @@
+package panic.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestHistogram {
+
+  @Test
+  public void testSmallValuesAreExact() {
+    Histogram h = new Histogram("small", false);
+    for (int i = 1; i <= 10; i++) {
+      h.record(i);
+    }
+    assertEquals(10, h.getCount());
+    assertEquals(55, h.getSum());
+    assertEquals(5, h.getPercentile(0.5));
+    assertEquals(9, h.getPercentile(0.9));
+    assertEquals(10, h.getPercentile(1.0));
+  }
+
+  @Test
+  public void testPercentilesWithinBucketError() {
+    Histogram h = new Histogram("large", true);
+    for (long i = 1; i <= 100000; i++) {
+      h.record(i * 1000);
+    }
+    long p50 = h.getPercentile(0.5);
+    long p99 = h.getPercentile(0.99);
+    assertTrue(p50 >= 50000000L && p50 <= 50000000L * 1.125);
+    assertTrue(p99 >= 99000000L && p99 <= 99000000L * 1.125);
+    assertEquals(100000000L, h.getPercentile(1.0));
+  }
+}
@@ -0,0 +1,103 @@
+package panic.metrics;
+
+import java.util.EnumMap;
+
+import panic.gene.SurvivalTrait;
+
+/**
+ * The metrics recorded over the course of a turn, looked up once so that the turn loop only
+ * ever touches the metrics themselves.<br>
+ * Phases are timed around the whole population (see TurnResolver), not per Organism.
+ * @author Sam Paniccia
+ *
+ */
+public final class TurnMetrics {
+
+  private static final MetricsRegistry registry = MetricsRegistry.getInstance();
+
+  // phases of a turn
+
+  /**
+   * A whole turn of the Player's population
+   */
+  public static final Histogram TURN = registry.timer("turn.total");
+
+  /**
+   * Every Organism deciding whether it dies and where it moves
+   */
+  public static final Histogram FITNESS = registry.timer("turn.fitness");
+
+  /**
+   * Killing the Organisms that died
+   */
+  public static final Histogram DEATHS = registry.timer("turn.deaths");
+
+  /**
+   * Moving the Organisms that moved
+   */
+  public static final Histogram MOVEMENT = registry.timer("turn.movement");
+
+  /**
+   * Killing and moving, in parallel, the Organisms of each board chunk whose moves stay within it
+   * (see ChunkedTurnResolver)
+   */
+  public static final Histogram CHUNKS = registry.timer("turn.chunks");
+
+  /**
+   * Moving the Organisms whose moves crossed a chunk edge, from the chunks' outboxes
+   */
+  public static final Histogram MERGE = registry.timer("turn.merge");
+
+  /**
+   * Handing the turn's changes to the SaveService
+   */
+  public static final Histogram SAVE = registry.timer("turn.save");
+
+  /**
+   * Painting the PlayPanel
+   */
+  public static final Histogram REPAINT = registry.timer("turn.repaint");
+
+  // counters
+
+  public static final Counter MOVES_ATTEMPTED = registry.counter("moves.attempted");
+  public static final Counter MOVES_SUCCEEDED = registry.counter("moves.succeeded");
+  public static final Counter MOVES_CROSSING_CHUNKS = registry.counter("moves.crossing_chunks");
+  public static final Counter MUTATIONS_ATTEMPTED = registry.counter("mutations.attempted");
+  public static final Counter MUTATIONS_SUCCEEDED = registry.counter("mutations.succeeded");
+
+  // saves
+
+  /**
+   * The time from a save being requested to it being on disk
+   */
+  public static final Histogram SAVE_LATENCY = registry.timer("save.latency");
+
+  /**
+   * The number of bytes written by each save
+   */
+  public static final Histogram SAVE_SIZE = registry.histogram("save.bytes");
+
+  /**
+   * The deaths of each cause, e.g. "deaths.predation"
+   */
+  private static final EnumMap<SurvivalTrait, Counter> deaths;
+
+  static {
+    deaths = new EnumMap<SurvivalTrait, Counter>(SurvivalTrait.class);
+    for (SurvivalTrait cause : new SurvivalTrait[] { SurvivalTrait.predation, 
+        SurvivalTrait.appetite }) {
+      deaths.put(cause, registry.counter("deaths." + cause.name()));
+    }
+  }
+
+  private TurnMetrics() {
+  }
+
+  /**
+   * To get the Counter of deaths of the given cause (predation or appetite)
+   */
+  public static Counter deathsOf(SurvivalTrait cause) {
+    return TurnMetrics.deaths.get(cause);
+  }
+}
@@ -4,18 +4,19 @@ import java.awt.Font;
 import java.awt.Graphics2D;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.EnumMap;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
-import java.util.OptionalDouble;
-import java.util.Random;
+import java.util.SplittableRandom;
 
+import panic.game.RandomSource;
 import panic.gene.Allele;
+import panic.gene.CoefficientTable;
 import panic.gene.Gene;
-import panic.gene.MapKeyGenerator;
 import panic.gene.SurvivalTrait;
 import panic.gene.Trait;
+import panic.metrics.TurnMetrics;
 
 public class Chromosome implements Serializable {  
   private static final long serialVersionUID = 1L;
@@ -31,6 +32,12 @@ public class Chromosome implements Serializable {
    */
   private Trait[] allTraits;
   
+  /**
+   * The value of each SurvivalTrait for this Chromosome, indexed by SurvivalTrait ordinal, or
+   * null if a Gene has changed since it was last computed
+   */
+  private transient double[] survivalTraitValues;
+  
   private final int DRAW_Y_OFFSET = 30;
   private final int DRAW_BOTTOM_OFFSET = 10;
   private final int DRAW_CHARS_PER_LINE = 80;
@@ -42,6 +49,18 @@ public class Chromosome implements Serializable {
     this.addGenes();
   }
   
+  /**
+   * To create a Chromosome whose Genes express the given Alleles
+   * @param alleles The Allele of each of the given Traits, indexed by Trait ordinal
+   */
+  public Chromosome(Trait[] allTraits, Allele[] alleles) {
+    this.allTraits = allTraits;
+    this.genes = new EnumMap<Trait, Gene>(Trait.class);
+    for (Trait t : this.allTraits) {
+      this.genes.put(t, new Gene(t, alleles[t.ordinal()]));
+    }
+  }
+  
   private void addGenes() {
     this.genes = new EnumMap<Trait, Gene>(Trait.class);
     for (Trait t : this.allTraits) {
@@ -59,7 +78,7 @@ public class Chromosome implements Serializable {
     return s.substring(2);
   }
   
-  public int draw(Graphics2D g, int xPos, int yPos, HashMap<Allele, Boolean> discovered) {
+  public int draw(Graphics2D g, int xPos, int yPos, BitSet discovered) {
     g.setFont(this.FONT_CHROMOSOME);
     String toDraw = "";
     int numLines = 1;
@@ -95,16 +114,19 @@ public class Chromosome implements Serializable {
    * To mutate one Gene in this Chromosome
    */
   public Optional<Allele> mutate(double scenarioChance) {  
-    double randAdaptability = new Random().nextGaussian() * 0.5;
+    SplittableRandom rand = RandomSource.current();
+    double randAdaptability = RandomSource.nextGaussian(rand) * 0.5;
     double geneticAdaptability = this.getSurvivalTraitValue(SurvivalTrait.adaptability);
     
     double totalAdaptability = geneticAdaptability + randAdaptability + scenarioChance;
     
+    TurnMetrics.MUTATIONS_ATTEMPTED.increment();
     if (totalAdaptability >= 0) { 
+      TurnMetrics.MUTATIONS_SUCCEEDED.increment();
       List<Trait> thisTraits = new ArrayList<Trait>(this.genes.keySet());
-      int rand = new Random().nextInt(thisTraits.size());
-      Trait which = thisTraits.get(rand);
+      Trait which = thisTraits.get(rand.nextInt(thisTraits.size()));
       Gene toMutate = this.genes.get(which);
+      this.survivalTraitValues = null;
       return Optional.of(toMutate.mutate()); 
     } 
     return Optional.empty();
@@ -124,25 +146,46 @@ public class Chromosome implements Serializable {
   public void setGene(Trait which, Allele allele) {
     Gene toChange = this.genes.get(which);
     toChange.setAllele(allele); 
+    this.survivalTraitValues = null;
   } 
   
   public Trait[] getAllTraitsInChromosome() {
     return this.allTraits;
   }
   
-  public double getSurvivalTraitValue(SurvivalTrait which) { 
-    OptionalDouble average;
-    
-    average = this.genes.values().stream()
-    .map(gene -> gene.getAllele())
-    .map(allele -> which.getAlleleValue(
-        MapKeyGenerator.alleleAndTraitToKey(allele, allele.whichTrait())))
-    .mapToDouble(d -> d) 
-    .filter(d -> d > -1) 
-    .average();
+  /**
+   * To get the value of the given SurvivalTrait for this Chromosome
+   */
+  public double getSurvivalTraitValue(SurvivalTrait which) {
+    double[] values = this.survivalTraitValues;
+    if (values == null) {
+      values = new double[SurvivalTrait.values().length];
+      for (SurvivalTrait t : SurvivalTrait.values()) {
+        values[t.ordinal()] = this.computeSurvivalTraitValue(t);
+      }
+      this.survivalTraitValues = values;
+    }
+    return values[which.ordinal()];
+  }
+  
+  /**
+   * To average the given SurvivalTrait's weights over the expressed Alleles of this Chromosome,
+   * ignoring any Allele whose weight is -1 or less
+   */
+  private double computeSurvivalTraitValue(SurvivalTrait which) { 
+    CoefficientTable table = CoefficientTable.getInstance();
+    double sum = 0;
+    int count = 0;
+    for (Gene gene : this.genes.values()) {
+      double d = table.getAlleleValue(which, gene.getAllele());
+      if (d > -1) {
+        sum += d;
+        count++;
+      }
+    }
 
-    if (average.isPresent()) {
-      return average.getAsDouble();
+    if (count > 0) {
+      return sum / count;
     } else {
       throw new UnsupportedOperationException("what");
     }
@@ -1,7 +1,7 @@
 package panic.org;
 
+import panic.gene.Allele;
 import panic.gene.Sex;
-import panic.gene.Trait; 
 
 public class OBactCyano extends Organism {   
   private static final long serialVersionUID = 1; 
@@ -10,16 +10,13 @@ public class OBactCyano extends Organism {
     super(name, sex); 
   }
   
+  OBactCyano(String name, Sex sex, Allele[] alleles) {
+    super(name, sex, alleles);
+  }
+  
   @Override
-  protected String setSpecies() {
-    return "Cyanobacterium";
-  } 
-
-  @Override
-  protected Trait[] setTraits() {
-    return new Trait[] {
-        Trait.size, Trait.bacterialglidespeed, Trait.cellwallthickness, Trait.color
-    };
+  public Species getSpecies() {
+    return Species.cyanobacterium;
   } 
   
   @Override
@@ -1,7 +1,7 @@
 package panic.org;
 
+import panic.gene.Allele;
 import panic.gene.Sex;
-import panic.gene.Trait;
 
 public class OBactEColi extends Organism { 
   private static final long serialVersionUID = 1L;
@@ -9,17 +9,14 @@ public class OBactEColi extends Organism {
   protected OBactEColi(String name, Sex sex) {
     super(name, sex); 
   }
-
-  @Override
-  protected String setSpecies() {
-    return "E.Coli";
+  
+  OBactEColi(String name, Sex sex, Allele[] alleles) {
+    super(name, sex, alleles);
   }
 
   @Override
-  protected Trait[] setTraits() {
-    return new Trait[] {
-        Trait.size, Trait.bacterialglidespeed, Trait.cellwallthickness
-    };
+  public Species getSpecies() {
+    return Species.ecoli;
   }
 
   @Override
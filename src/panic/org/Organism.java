@@ -4,17 +4,18 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.io.Serializable;
-import java.util.HashMap;
+import java.util.BitSet;
 import java.util.Optional;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import panic.game.Father;
+import panic.game.RandomSource;
 import panic.gene.Allele;
-import panic.gene.MapKeyGenerator;
+import panic.gene.CoefficientTable;
 import panic.gene.Sex;
 import panic.gene.SurvivalTrait;
 import panic.gene.Trait;
-import panic.io.DataIO;
+import panic.metrics.TurnMetrics;
 import panic.tile.BoardTile;
 
 public abstract class Organism implements Serializable {
@@ -51,6 +52,18 @@ public abstract class Organism implements Serializable {
    */
   protected BoardTile tile;
   
+  /**
+   * The slot of this Organism among the living Organisms on its tile, or -1 if it is not among
+   * them; kept by BoardTile
+   */
+  protected transient int tileSlot = -1;
+  
+  /**
+   * The index of this Organism among its Player's Organisms (Player#getOrganisms()), or -1 if
+   * it has no Player; kept by Player
+   */
+  protected transient int playerIndex = -1;
+  
   /**
    * Whether this Organism has been placed on the board. Should align with 
    * (this.tile != null)
@@ -66,29 +79,53 @@ public abstract class Organism implements Serializable {
   private final int DRAW_Y_OFFSET = 30; 
    
   
-  protected static final HashMap<String, Double> orgValues = 
-      DataIO.loadOrgValues();
-  
   /**
-   * Each subclass of Organism must take a list of Traits, which
-   * represent the types of Genes in the Organism. It also takes a name and a sex.
+   * Each Organism takes a name and a sex. The types of Genes in the Organism are 
+   * the Traits of its Species, and each is given a random Allele.
    */
   protected Organism(String name, Sex sex) {
+    this(name, sex, null);
+  }  
+  
+  /**
+   * To create an Organism whose Genes express the given Alleles
+   * @param alleles The Allele of each of the Species' Traits, indexed by Trait ordinal, 
+   * or null for random Alleles
+   */
+  protected Organism(String name, Sex sex, Allele[] alleles) {
     this.name = name;
-    this.species = this.setSpecies(); 
-    Trait[] traits = this.setTraits();
+    this.species = this.getSpecies().getName(); 
+    Trait[] traits = this.getSpecies().getTraits();
     this.numGenes = traits.length;
     if (numGenes == 0) {
       throw new IllegalArgumentException("At least one trait must be supplied to an Organism.");
     }
-    this.chromosome = new Chromosome(traits); 
+    this.chromosome = (alleles == null) ? new Chromosome(traits) : new Chromosome(traits, alleles); 
     this.lifeState = OrganismLifeState.alive;
     this.sex = sex;
-  }  
+  }
   
-  protected abstract String setSpecies();
+  /**
+   * To recreate an Organism with the given Alleles, life state and tile (e.g. from a save file).
+   * The Organism is not added to the tile's list of Organisms.
+   * @param alleles The Allele of each of the Species' Traits, indexed by Trait ordinal
+   * @param tile The tile the Organism was on, or null if it had not been placed
+   */
+  public static Organism restore(Species species, String name, Sex sex, Allele[] alleles,
+      boolean alive, BoardTile tile) {
+    Organism restored = species.create(name, sex, alleles);
+    restored.lifeState = alive ? OrganismLifeState.alive : OrganismLifeState.dead;
+    if (tile != null) {
+      restored.tile = tile;
+      restored.hasBeenPlaced = true;
+    }
+    return restored;
+  }
   
-  protected abstract Trait[] setTraits();
+  /**
+   * To get the Species of this Organism
+   */
+  public abstract Species getSpecies();
   
   /**
    * To get this Organism's name
@@ -132,7 +169,7 @@ public abstract class Organism implements Serializable {
   protected abstract boolean speciesBreedable(Organism other);
   
   private boolean sameSpecies(Organism other) {
-    return this.species.equals(other.species);
+    return this.getSpecies() == other.getSpecies();
   }
   
   /**
@@ -154,13 +191,14 @@ public abstract class Organism implements Serializable {
     Organism offspring = one.createOffspring(name); 
     
     Trait[] ids = one.chromosome.getAllTraitsInChromosome();
+    SplittableRandom rand = RandomSource.current();
     
     for (int i = 0; i < one.numGenes; i++) {
       Trait currentTrait = ids[i]; 
       Allele oneAllele = one.getAlleleAt(currentTrait);
       Allele twoAllele = two.getAlleleAt(currentTrait); 
       
-      boolean shouldTakeFromFirst = new Random().nextBoolean();
+      boolean shouldTakeFromFirst = rand.nextBoolean();
       
       if (shouldTakeFromFirst) {
         offspring.setGene(currentTrait, oneAllele); 
@@ -184,7 +222,7 @@ public abstract class Organism implements Serializable {
    * @param index
    * @return
    */
-  private Allele getAlleleAt(Trait which) { 
+  public Allele getAlleleAt(Trait which) { 
     return this.chromosome.getAlleleAt(which);  
   }
 
@@ -193,8 +231,7 @@ public abstract class Organism implements Serializable {
    * @param tile
    */
   public boolean placeOnTile(BoardTile tile) {
-    double canPlace = tile.getSurvivalTraitForOrganism(this.species, SurvivalTrait.mobility);
-    if (canPlace > -1) {
+    if (tile.getTileType().isPlaceableBy(this.getSpecies())) {
       this.tile = tile;
       this.hasBeenPlaced = true; 
       return true;
@@ -234,7 +271,7 @@ public abstract class Organism implements Serializable {
    * @param g
    * @return 
    */
-  public int draw(Graphics2D g, int xPos, int yPos, HashMap<Allele, Boolean> discovered) {
+  public int draw(Graphics2D g, int xPos, int yPos, BitSet discovered) {
     String title = "Organism " + this.name + ": "
         + this.sex + " " + this.species;
     g.setColor(Color.WHITE);
@@ -244,17 +281,17 @@ public abstract class Organism implements Serializable {
   }
   
   /**
-   * To return the double associated with the given SurvivalTrait in this.orgVals
+   * To return the species weight of the given SurvivalTrait for this Organism
    */
   private double getTraitValue(SurvivalTrait trait) {
-    String key = MapKeyGenerator.orgAndTraitToKey(this, trait);
-    return Organism.orgValues.get(key); 
+    return CoefficientTable.getInstance().getSpeciesValue(this.getSpecies(), trait);
   }
   
   /**
    * To determine whether or not to move this Organism
+   * @param rand The random stream of this Organism for this turn
    */
-  private boolean shouldMove() {
+  private boolean shouldMove(SplittableRandom rand) {
     
     // dead Organisms should not move
     if (this.lifeState == OrganismLifeState.dead) {
@@ -265,11 +302,11 @@ public abstract class Organism implements Serializable {
     // [-1, 1]
     double tileMobility = this.tile.getTraitValue(SurvivalTrait.mobility);
     // [-1, 1]
-    double organismTileMobility = this.tile.getSurvivalTraitForOrganism(this.species, SurvivalTrait.mobility);
+    double organismTileMobility = this.tile.getSurvivalTraitForOrganism(this.getSpecies(), SurvivalTrait.mobility);
     // [-1, 1]
     double organismMobility = this.getTraitValue(SurvivalTrait.mobility);
     // centered at 0, 70% of values between [-1, 1]... fine for now
-    double randomMobility = new Random().nextGaussian();
+    double randomMobility = RandomSource.nextGaussian(rand);
     
     double totalMobility = geneticMobility 
         + tileMobility 
@@ -278,11 +315,13 @@ public abstract class Organism implements Serializable {
         + randomMobility
         ;
 
-    Father.log("Moving...");
-    Father.log("Genetic Mobility: " + geneticMobility + ". Tile Mobility: " + tileMobility + ".");
-    Father.log("Organism-Tile Mobility: " + organismTileMobility + ". Organism Mobility: " + organismMobility + ".");
-    Father.log("Random Mobility: " + randomMobility);
-    Father.log("\tSummed Mobility: " + totalMobility + ". "); 
+    if (Father.isTracing()) {
+      Father.trace("Moving...");
+      Father.trace("Genetic Mobility: " + geneticMobility + ". Tile Mobility: " + tileMobility + ".");
+      Father.trace("Organism-Tile Mobility: " + organismTileMobility + ". Organism Mobility: " + organismMobility + ".");
+      Father.trace("Random Mobility: " + randomMobility);
+      Father.trace("\tSummed Mobility: " + totalMobility + ". ");
+    }
     return totalMobility >= 0;
   }
 
@@ -296,17 +335,19 @@ public abstract class Organism implements Serializable {
     // [-1,1]
     double tilePredation = this.tile.getTraitValue(SurvivalTrait.predation);
     // [-1,1]
-    double organismTilePredation = this.tile.getSurvivalTraitForOrganism(this.species, SurvivalTrait.predation);
+    double organismTilePredation = this.tile.getSurvivalTraitForOrganism(this.getSpecies(), SurvivalTrait.predation);
     // [-1, 1]
     double organismPredation = this.getTraitValue(SurvivalTrait.predation);
     
     double totalPredation = geneticPredation + tilePredation + organismTilePredation + organismPredation; 
     
     
-    Father.log("Determining predation...");
-    Father.log("Genetic Predation: " + geneticPredation + ". Tile Predation: " + tilePredation + ".");
-    Father.log("Organism-Tile Predation: " + organismTilePredation  + ". Organism Predation: " + organismPredation + ".");
-    Father.log("\tSummed Predation: " + totalPredation + ". "); 
+    if (Father.isTracing()) {
+      Father.trace("Determining predation...");
+      Father.trace("Genetic Predation: " + geneticPredation + ". Tile Predation: " + tilePredation + ".");
+      Father.trace("Organism-Tile Predation: " + organismTilePredation  + ". Organism Predation: " + organismPredation + ".");
+      Father.trace("\tSummed Predation: " + totalPredation + ". ");
+    }
     
     // should die if less than zero
     return totalPredation < 0;
@@ -322,47 +363,72 @@ public abstract class Organism implements Serializable {
     double tileAppetite = this.tile.getTraitValue(SurvivalTrait.appetite);
     // [-1,1]
     double organismTileAppetite = 
-        this.tile.getSurvivalTraitForOrganism(this.species, SurvivalTrait.appetite);
+        this.tile.getSurvivalTraitForOrganism(this.getSpecies(), SurvivalTrait.appetite);
     // [-1, 1]
     double organismAppetite = this.getTraitValue(SurvivalTrait.appetite);
     
     double totalAppetite = geneticAppetite + tileAppetite + organismTileAppetite + organismAppetite; 
     
-    Father.log("Determining appetite...");
-    Father.log("Genetic Appetite: " + geneticAppetite + ". Tile Appetite: " + tileAppetite + ".");
-    Father.log("Organism-Tile Appetite: " + organismTileAppetite + ". Organism Appetite: " + organismAppetite + ".");
-    Father.log("\tSummed Appetite: " + totalAppetite + ". "); 
+    if (Father.isTracing()) {
+      Father.trace("Determining appetite...");
+      Father.trace("Genetic Appetite: " + geneticAppetite + ". Tile Appetite: " + tileAppetite + ".");
+      Father.trace("Organism-Tile Appetite: " + organismTileAppetite + ". Organism Appetite: " + organismAppetite + ".");
+      Father.trace("\tSummed Appetite: " + totalAppetite + ". ");
+    }
     
     return totalAppetite < 0;
   }
   
   /**
-   * To move this Organism to a bordering Tile
+   * To decide, without changing any state, whether this Organism dies this turn
+   * and to which bordering Tile it moves if it survives
+   * @param rand The random stream of this Organism for this turn
    */
-  private void maybeMove() { 
-    if (this.shouldMove()) {
-      Father.log("Moving succeeded! Will now move to valid adjacent Tile.");
-      this.tile = this.tile.moveOrganism(this, this.species);
+  public TurnDecision decideTurn(SplittableRandom rand) {
+    if (!this.hasBeenPlaced || !this.isAlive()) {
+      return TurnDecision.NOTHING;
+    }
+    
+    if (this.beenSlain()) {
+      return TurnDecision.death(SurvivalTrait.predation);
+    } else if (this.starved()) {
+      return TurnDecision.death(SurvivalTrait.appetite);
+    }
+    
+    if (this.shouldMove(rand)) {
+      TurnMetrics.MOVES_ATTEMPTED.increment();
+      Optional<BoardTile> destination = this.tile.chooseDestination(this.getSpecies(), rand);
+      if (destination.isPresent()) {
+        TurnMetrics.MOVES_SUCCEEDED.increment();
+        Father.trace("Moving succeeded! Will now move to valid adjacent Tile.");
+        return TurnDecision.move(destination.get());
+      }
+      Father.trace("Moving failed! No adjacent Tile can be moved onto.");
+      return TurnDecision.NOTHING;
     } else {
-      Father.log("Moving failed!");
+      Father.trace("Moving failed!");
+      return TurnDecision.NOTHING;
     }
   }
   
   /**
-   * To kill this Organism if it has been slain or if it starved
+   * To kill or to move this Organism as decided by #decideTurn(SplittableRandom)
+   * @return The death message of this Organism, if it died
    */
-  private Optional<String> maybeKill() {
-    if (this.beenSlain()) {
-      return this.die(SurvivalTrait.predation); 
-    } else if (this.starved()) {
-      return this.die(SurvivalTrait.appetite); 
+  public Optional<String> applyTurn(TurnDecision decision) {
+    if (decision.diedOf() != null) {
+      return this.die(decision.diedOf());
     }
     
+    if (decision.movedTo() != null) {
+      this.tile = this.tile.moveOrganism(this, decision.movedTo());
+    }
     return Optional.empty();
-  } 
+  }
 
   private Optional<String> die(SurvivalTrait cause) {
     this.lifeState = OrganismLifeState.dead;
+    this.tile.buryOrganism(this);
     String message = "\nOrganism " + this.name + ", a " + this.sex + " " + this.species + ",";
     switch (cause) { 
     case predation:
@@ -381,18 +447,55 @@ public abstract class Organism implements Serializable {
   
   /**
    * To move this Organism and to kill it, if it should die
+   * @param rand The random stream of this Organism for this turn
    */
-  public Optional<String> nextTurn() {
-    if (this.hasBeenPlaced) {
-      Optional<String> result = this.maybeKill();
-      this.maybeMove(); 
-      return result;
-    } else {
-      return Optional.empty();
-    }
+  public Optional<String> nextTurn(SplittableRandom rand) {
+    return this.applyTurn(this.decideTurn(rand));
   }
 
 
+  /**
+   * To get the tile on which this Organism has been placed, or null if it is not on the board
+   */
+  public BoardTile getTile() {
+    return this.tile;
+  }
+  
+  /**
+   * To get the slot of this Organism among the living Organisms on its tile, or -1
+   */
+  public int getTileSlot() {
+    return this.tileSlot;
+  }
+  
+  /**
+   * To set the slot of this Organism among the living Organisms on its tile; for BoardTile only
+   */
+  public void setTileSlot(int slot) {
+    this.tileSlot = slot;
+  }
+  
+  /**
+   * To get the index of this Organism among its Player's Organisms, or -1
+   */
+  public int getPlayerIndex() {
+    return this.playerIndex;
+  }
+  
+  /**
+   * To set the index of this Organism among its Player's Organisms; for Player only
+   */
+  public void setPlayerIndex(int index) {
+    this.playerIndex = index;
+  }
+  
+  /**
+   * To get the sex of this Organism
+   */
+  public Sex getSex() {
+    return this.sex;
+  }
+
   public boolean isAlive() {
     return this.lifeState == OrganismLifeState.alive;
   }
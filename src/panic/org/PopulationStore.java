@@ -0,0 +1,233 @@
+package panic.org;
+
+import java.util.Arrays;
+
+import panic.gene.Allele;
+import panic.gene.Sex;
+import panic.gene.Trait;
+import panic.scenario.Scenario;
+import panic.tile.BoardTile;
+
+/**
+ * A columnar store of Organisms for very large populations.<br>
+ * Each Organism is one index into a handful of primitive arrays (its Allele of each Trait, its
+ * tile index, sex, life state and species), about a dozen bytes in all, instead of a graph of
+ * Organism, Chromosome and Gene objects. Organism views may be taken out of the store for code
+ * that works with Organisms, and written back into it.
+ * @author Sam Paniccia
+ *
+ */
+public class PopulationStore {
+
+  /**
+   * The tile index of an Organism that has not been placed on the board
+   */
+  public static final int NOT_PLACED = -1;
+
+  /**
+   * The stored Allele ordinal of a Trait that an Organism's species does not carry
+   */
+  private static final byte NO_ALLELE = -1;
+
+  private static final Trait[] TRAITS = Trait.values();
+  private static final Species[] SPECIES = Species.values();
+  private static final Sex[] SEXES = Sex.values();
+
+  /**
+   * The Allele ordinal of each Trait of each Organism, indexed [organism][trait ordinal]
+   */
+  private byte[] alleles;
+
+  /**
+   * The board index of each Organism's tile, or NOT_PLACED
+   */
+  private int[] tiles;
+
+  /**
+   * The Sex ordinal of each Organism
+   */
+  private byte[] sexes;
+
+  /**
+   * The OrganismLifeState ordinal of each Organism
+   */
+  private byte[] lifeStates;
+
+  /**
+   * The Species ordinal of each Organism
+   */
+  private short[] species;
+
+  /**
+   * The name of each Organism, or null if it was never given one; allocated on the first name
+   */
+  private String[] names;
+
+  /**
+   * The number of Organisms in the store
+   */
+  private int size;
+
+  public PopulationStore(int initialCapacity) {
+    int capacity = Math.max(initialCapacity, 16);
+    this.alleles = new byte[capacity * TRAITS.length];
+    this.tiles = new int[capacity];
+    this.sexes = new byte[capacity];
+    this.lifeStates = new byte[capacity];
+    this.species = new short[capacity];
+  }
+
+  /**
+   * To add an Organism of the given Species with random Alleles to the store
+   * @param tileIndex The board index of its tile, or NOT_PLACED
+   * @return Its index in the store
+   */
+  public int add(Species which, Sex sex, int tileIndex) {
+    int index = this.append(which, sex, tileIndex, OrganismLifeState.alive);
+    for (Trait t : which.getTraits()) {
+      this.setAllele(index, t, t.getRandomAllele());
+    }
+    return index;
+  }
+
+  /**
+   * To add a copy of the given Organism to the store
+   * @param tileIndex The board index of its tile, or NOT_PLACED
+   * @return Its index in the store
+   */
+  public int add(Organism toAdd, int tileIndex) {
+    int index = this.append(toAdd.getSpecies(), toAdd.sex, tileIndex, toAdd.lifeState);
+    this.update(index, toAdd);
+    return index;
+  }
+
+  private int append(Species which, Sex sex, int tileIndex, OrganismLifeState lifeState) {
+    if (this.size == this.tiles.length) {
+      this.grow();
+    }
+    int index = this.size++;
+    Arrays.fill(this.alleles, index * TRAITS.length, (index + 1) * TRAITS.length, NO_ALLELE);
+    this.tiles[index] = tileIndex;
+    this.sexes[index] = (byte) sex.ordinal();
+    this.lifeStates[index] = (byte) lifeState.ordinal();
+    this.species[index] = (short) which.ordinal();
+    return index;
+  }
+
+  private void grow() {
+    int capacity = this.tiles.length * 2;
+    this.alleles = Arrays.copyOf(this.alleles, capacity * TRAITS.length);
+    this.tiles = Arrays.copyOf(this.tiles, capacity);
+    this.sexes = Arrays.copyOf(this.sexes, capacity);
+    this.lifeStates = Arrays.copyOf(this.lifeStates, capacity);
+    this.species = Arrays.copyOf(this.species, capacity);
+    if (this.names != null) {
+      this.names = Arrays.copyOf(this.names, capacity);
+    }
+  }
+
+  // getters
+
+  /**
+   * To get the number of Organisms in the store, living or dead
+   */
+  public int size() {
+    return this.size;
+  }
+
+  public Species getSpecies(int index) {
+    return SPECIES[this.species[index]];
+  }
+
+  public Sex getSex(int index) {
+    return SEXES[this.sexes[index]];
+  }
+
+  public boolean isAlive(int index) {
+    return this.lifeStates[index] == OrganismLifeState.alive.ordinal();
+  }
+
+  /**
+   * To get the board index of the given Organism's tile, or NOT_PLACED
+   */
+  public int getTile(int index) {
+    return this.tiles[index];
+  }
+
+  /**
+   * To get the given Organism's Allele of the given Trait, or null if its species does not
+   * carry that Trait
+   */
+  public Allele getAllele(int index, Trait which) {
+    byte ordinal = this.alleles[index * TRAITS.length + which.ordinal()];
+    return (ordinal == NO_ALLELE) ? null : which.getAlleles()[ordinal];
+  }
+
+  /**
+   * To get the name of the given Organism, which defaults to its index in the store
+   */
+  public String getName(int index) {
+    String name = (this.names == null) ? null : this.names[index];
+    return (name == null) ? "#" + index : name;
+  }
+
+  // setters
+
+  public void setTile(int index, int tileIndex) {
+    this.tiles[index] = tileIndex;
+  }
+
+  public void setAllele(int index, Trait which, Allele allele) {
+    this.alleles[index * TRAITS.length + which.ordinal()] = (byte) allele.ordinal();
+  }
+
+  public void setName(int index, String name) {
+    if (this.names == null) {
+      this.names = new String[this.tiles.length];
+    }
+    this.names[index] = name;
+  }
+
+  /**
+   * To mark the given Organism as dead
+   */
+  public void kill(int index) {
+    this.lifeStates[index] = (byte) OrganismLifeState.dead.ordinal();
+  }
+
+  // Organism views
+
+  /**
+   * To take an Organism view of the given stored Organism. The view is a full Organism that the
+   * game states may work with; changes to it are kept in the store through #update(int, Organism).
+   * @param board The board that the store's tile indices refer to
+   */
+  public Organism view(int index, Scenario board) {
+    Species which = this.getSpecies(index);
+    Allele[] expressed = new Allele[TRAITS.length];
+    for (Trait t : which.getTraits()) {
+      expressed[t.ordinal()] = this.getAllele(index, t);
+    }
+
+    int tileIndex = this.tiles[index];
+    BoardTile tile = (tileIndex == NOT_PLACED) ? null : board.getTile(tileIndex);
+    Organism view = Organism.restore(which, this.getName(index), this.getSex(index), expressed,
+        this.isAlive(index), tile);
+    return view;
+  }
+
+  /**
+   * To write the genes, sex, life state and name of the given Organism (usually a view) into the
+   * stored Organism at the given index
+   */
+  public void update(int index, Organism from) {
+    for (Trait t : from.getSpecies().getTraits()) {
+      this.setAllele(index, t, from.getAlleleAt(t));
+    }
+    this.sexes[index] = (byte) from.sex.ordinal();
+    this.lifeStates[index] = (byte) from.lifeState.ordinal();
+    if (!from.getName().equals(this.getName(index))) {
+      this.setName(index, from.getName());
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package panic.org;
+
+import java.util.Optional;
+
+import panic.gene.Allele;
+import panic.gene.Sex;
+import panic.gene.Trait;
+
+/**
+ * Every species of Organism, in the order of their coefficient rows
+ * @author Sam Paniccia
+ *
+ */
+public enum Species {
+  cyanobacterium("Cyanobacterium",
+      Trait.size, Trait.bacterialglidespeed, Trait.cellwallthickness, Trait.color) {
+
+    @Override
+    public Organism create(String name, Sex sex, Allele[] alleles) {
+      return new OBactCyano(name, sex, alleles);
+    }
+  },
+  ecoli("E.Coli",
+      Trait.size, Trait.bacterialglidespeed, Trait.cellwallthickness) {
+
+    @Override
+    public Organism create(String name, Sex sex, Allele[] alleles) {
+      return new OBactEColi(name, sex, alleles);
+    }
+  };
+
+  /**
+   * The in-game name of this species, as used in the gamedata files
+   */
+  private String speciesName;
+
+  /**
+   * The types of Genes that Organisms of this species carry
+   */
+  private Trait[] traits;
+
+  private Species(String speciesName, Trait... traits) {
+    this.speciesName = speciesName;
+    this.traits = traits;
+  }
+
+  /**
+   * To create an Organism of this Species whose Genes express the given Alleles
+   * @param alleles The Allele of each of this Species' Traits, indexed by Trait ordinal
+   */
+  public abstract Organism create(String name, Sex sex, Allele[] alleles);
+
+  /**
+   * To get the desired Species from its in-game name
+   */
+  public static Optional<Species> getSpeciesFromName(String name) {
+    for (Species s : Species.values()) {
+      if (s.speciesName.equalsIgnoreCase(name)) {
+        return Optional.of(s);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * To get the in-game name of this Species
+   */
+  public String getName() {
+    return this.speciesName;
+  }
+
+  /**
+   * To get the types of Genes that Organisms of this Species carry
+   */
+  public Trait[] getTraits() {
+    return this.traits;
+  }
+}
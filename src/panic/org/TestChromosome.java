@@ -0,0 +1,59 @@
+package panic.org;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import panic.gene.Allele;
+import panic.gene.CoefficientTable;
+import panic.gene.SurvivalTrait;
+import panic.gene.Trait;
+import panic.io.DataIO;
+
+public class TestChromosome {
+
+  @BeforeClass
+  public static void init() {
+    DataIO.loadGameData();
+  }
+  
+  private double expected(Chromosome c, SurvivalTrait which) {
+    double sum = 0;
+    int count = 0;
+    for (Trait t : c.getAllTraitsInChromosome()) {
+      double d = CoefficientTable.getInstance().getAlleleValue(which, c.getAlleleAt(t));
+      if (d > -1) {
+        sum += d;
+        count++;
+      }
+    }
+    return sum / count;
+  }
+  
+  @Test
+  public void testCachedValuesFollowSetGene() {
+    Chromosome c = new Chromosome(Trait.values());
+    for (Trait t : Trait.values()) {
+      for (Allele a : t.getAlleles()) {
+        c.setGene(t, a);
+        for (SurvivalTrait s : SurvivalTrait.values()) {
+          assertEquals(this.expected(c, s), c.getSurvivalTraitValue(s), 1e-12);
+        }
+      }
+    }
+  }
+  
+  @Test
+  public void testCachedValuesFollowMutate() {
+    Chromosome c = new Chromosome(Trait.values());
+    for (int i = 0; i < 50; i++) {
+      c.getSurvivalTraitValue(SurvivalTrait.mobility);
+      // a large scenario chance makes every mutation succeed
+      c.mutate(10);
+      for (SurvivalTrait s : SurvivalTrait.values()) {
+        assertEquals(this.expected(c, s), c.getSurvivalTraitValue(s), 1e-12);
+      }
+    }
+  }
+}
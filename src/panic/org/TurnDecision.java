@@ -0,0 +1,56 @@
+package panic.org;
+
+import panic.gene.SurvivalTrait;
+import panic.tile.BoardTile;
+
+/**
+ * What happens to one Organism in one turn, as decided by Organism#decideTurn(SplittableRandom).<br>
+ * Deciding only reads the board, so decisions for many Organisms may be made at once; they are
+ * then applied one at a time through Organism#applyTurn(TurnDecision).
+ * @author Sam Paniccia
+ *
+ */
+public final class TurnDecision {
+
+  /**
+   * The decision to neither die nor move
+   */
+  public static final TurnDecision NOTHING = new TurnDecision(null, null);
+
+  /**
+   * The cause of death, or null if the Organism survives
+   */
+  private final SurvivalTrait diedOf;
+
+  /**
+   * The tile to move to, or null if the Organism stays where it is
+   */
+  private final BoardTile movedTo;
+
+  private TurnDecision(SurvivalTrait diedOf, BoardTile movedTo) {
+    this.diedOf = diedOf;
+    this.movedTo = movedTo;
+  }
+
+  /**
+   * To decide that an Organism dies of the given cause
+   */
+  public static TurnDecision death(SurvivalTrait cause) {
+    return new TurnDecision(cause, null);
+  }
+
+  /**
+   * To decide that an Organism moves onto the given tile
+   */
+  public static TurnDecision move(BoardTile destination) {
+    return new TurnDecision(null, destination);
+  }
+
+  public SurvivalTrait diedOf() {
+    return this.diedOf;
+  }
+
+  public BoardTile movedTo() {
+    return this.movedTo;
+  }
+}
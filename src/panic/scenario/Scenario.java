@@ -1,12 +1,20 @@
 package panic.scenario;
 
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import panic.game.GameController;
 import panic.io.DataIO;
 import panic.tile.BoardTile;
+import panic.tile.TileGrid;
 
 public abstract class Scenario implements Serializable { 
   private static final long serialVersionUID = 1;
@@ -49,15 +57,44 @@ public abstract class Scenario implements Serializable {
   protected String name;
   
   /**
-   * The list of tiles for this Scenario's board
+   * The tiles of this Scenario's board, only while this Scenario is serialized; the board is
+   * kept in this.grid
    */
   protected ArrayList<BoardTile> board;
   
+  /**
+   * This Scenario's board, which creates the BoardTile of a tile only when it is needed
+   */
+  protected transient TileGrid grid;
+  
+  /**
+   * The terrain of every tile, rendered once, or null if not yet rendered
+   */
+  protected transient BufferedImage terrain;
+  
+  /**
+   * The terrain with every tile's Organisms rendered over it, or null if not yet rendered
+   */
+  protected transient BufferedImage raster;
+  
   /**
    * GameController reference. <b>do i even need this?</b>
    */
   protected transient GameController gc;
   
+  /**
+   * To create the Scenario of the given key
+   * @throws IllegalArgumentException If no Scenario has that key
+   */
+  public static Scenario fromKey(String key, GameController gc) {
+    switch (key) {
+    case ScenarioTutorial.KEY:
+      return new ScenarioTutorial(gc);
+    default:
+      throw new IllegalArgumentException("No Scenario has the key " + key);
+    }
+  }
+  
   protected Scenario(GameController gc, String which) {
     this.gc = gc;
     this.initFields();
@@ -74,6 +111,11 @@ public abstract class Scenario implements Serializable {
     this.yOffset = this.initYOffset();
   }
   
+  /**
+   * To get the key of this Scenario, which also names its board file
+   */
+  public abstract String getKey();
+  
   /**
    * To set the mutation factor for this Scenario 
    */
@@ -98,36 +140,136 @@ public abstract class Scenario implements Serializable {
    * To initialize the board, per Scenario
    */
   private void initBoard(String which) { 
-    this.board = new ArrayList<BoardTile>();
-    this.cols = DataIO.readTiles(which, this.board);
-    this.rows = (this.board.size()) / this.cols;
-    
-    int numTiles = this.board.size();
-    for (int i = 0; i < numTiles; i++) {
-      BoardTile toAssign = this.board.get(i);
-      int indexD = i + this.cols;
-      int indexR = i + 1;
-      
-      if ((i + 1) % this.cols != 0) {
-        BoardTile right = this.board.get(indexR);
-        toAssign.setRight(right);
-      }
-      
-      if (indexD < numTiles) {
-        BoardTile below = this.board.get(indexD);
-        toAssign.setBelow(below);
-      }
+    this.grid = DataIO.readTileGrid(which);
+    this.rows = this.grid.getRows();
+    this.cols = this.grid.getCols();
+  }
+  
+  /**
+   * To serialize this Scenario, with the BoardTile of every tile of its board
+   */
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    this.board = new ArrayList<BoardTile>(Arrays.asList(this.grid.createTiles()));
+    out.defaultWriteObject();
+    this.board = null;
+  }
+  
+  /**
+   * To read a serialized Scenario, rebuilding its board from its BoardTiles
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    byte[] types = new byte[this.board.size()];
+    for (int i = 0; i < types.length; i++) {
+      types[i] = (byte) this.board.get(i).getTileType().ordinal();
     }
+    this.grid = new TileGrid(types.length / this.cols, this.cols, types);
+    this.grid.adoptTiles(this.board);
+    this.board = null;
+  }
+  
+  /**
+   * To get this Scenario's board
+   */
+  public TileGrid getGrid() {
+    return this.grid;
   }
   
   /**
    * To render all of this Scenario's tiles onto the PlayPanel 
    */
   public void drawTiles(Graphics2D g) {
-    for (BoardTile t : this.board) {
-      t.draw(g, this.xOffset, this.yOffset);
+    if (this.raster == null) {
+      this.renderBoard();
+    }
+    this.renderDirtyTiles();
+    g.drawImage(this.raster, this.xOffset, this.yOffset, null);
+  }
+  
+  /**
+   * To render the terrain of every tile once, and every tile's Organisms over it
+   */
+  private void renderBoard() {
+    Rectangle size = this.grid.getBounds();
+    
+    this.terrain = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = Scenario.createGraphics(this.terrain);
+    this.grid.drawTerrain(g);
+    g.dispose();
+    
+    this.raster = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+    g = Scenario.createGraphics(this.raster);
+    g.drawImage(this.terrain, 0, 0, null);
+    // every tile is drawn now, so none is waiting to be drawn again
+    this.grid.takeDirtyTiles();
+    // only tiles with Organisms on them, living or dead, have anything to draw over the terrain
+    for (BoardTile t : this.grid.getOccupiedTiles()) {
+      Rectangle bounds = t.getBounds();
+      t.drawOrganisms(g, bounds.x, bounds.y);
+    }
+    g.dispose();
+  }
+  
+  /**
+   * To render again, over their terrain, the Organisms of every tile that has changed since it
+   * was last rendered. Only those tiles are looked at, not the whole board.
+   */
+  private void renderDirtyTiles() {
+    BoardTile[] dirty = this.grid.takeDirtyTiles();
+    if (dirty.length == 0) {
+      return;
+    }
+    Graphics2D g = Scenario.createGraphics(this.raster);
+    for (BoardTile t : dirty) {
+      Rectangle bounds = t.getBounds();
+      g.setClip(bounds);
+      g.drawImage(this.terrain, 0, 0, null);
+      t.drawOrganisms(g, bounds.x, bounds.y);
     }
+    g.dispose();
   }
+  
+  private static Graphics2D createGraphics(BufferedImage image) {
+    Graphics2D g = image.createGraphics();
+    g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    return g;
+  }
+
+  /**
+   * To retrieve the BoardTile at the given index (row-major) on this Scenario's board, creating
+   * it if it has not been yet
+   */
+  public BoardTile getTile(int index) {
+    return this.grid.getTile(index);
+  }
+
+  /**
+   * To retrieve the number of tiles on this Scenario's board
+   */
+  public int getNumTiles() {
+    return this.grid.getNumTiles();
+  }
+
+  /**
+   * To retrieve the board indices of every tile with more than the given number of living
+   * Organisms on it, in board order. Only occupied tiles are looked at, not the whole board.
+   * @param numOrganisms At least 0
+   */
+  public int[] getTilesWithMoreThan(int numOrganisms) {
+    return Arrays.stream(this.grid.getOccupiedTiles())
+        .filter(t -> t.getNumOrganisms() > numOrganisms)
+        .mapToInt(BoardTile::getIndex)
+        .sorted()
+        .toArray();
+  }
+  
+  /**
+   * To retrieve the board index of the given BoardTile, or -1 if it is not on this board
+   */
+  public int getTileIndex(BoardTile tile) {
+    return (tile.getGrid() == this.grid) ? tile.getIndex() : -1;
+  }
+
 
   public int getTurnLimit() {
     return this.turnLimit;
@@ -148,9 +290,10 @@ public abstract class Scenario implements Serializable {
     x = x - this.xOffset;
     y = y - this.yOffset; 
     
-    int which = BoardTile.determineTileFromClick(x, y, this.rows, this.cols);
-    if (which >= 0 && which < this.board.size()) {
-      return this.board.get(which); 
+    // BoardTile counts the width of the board first
+    int which = BoardTile.determineTileFromClick(x, y, this.cols, this.rows);
+    if (which >= 0 && which < this.grid.getNumTiles()) {
+      return this.grid.getTile(which); 
     } else {
       return null;
     }
@@ -4,9 +4,16 @@ import panic.game.GameController;
 
 public class ScenarioTutorial extends Scenario { 
   private static final long serialVersionUID = 1;
+  
+  public static final String KEY = "tutorial";
 
   public ScenarioTutorial(GameController gc) {
-    super(gc, "tutorial"); 
+    super(gc, ScenarioTutorial.KEY); 
+  }
+
+  @Override
+  public String getKey() {
+    return ScenarioTutorial.KEY;
   }
 
   @Override
@@ -0,0 +1,197 @@
+package panic.sim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+
+import panic.game.RandomSource;
+import panic.metrics.TurnMetrics;
+import panic.org.Organism;
+import panic.org.TurnDecision;
+import panic.scenario.Scenario;
+import panic.tile.BoardTile;
+import panic.tile.TileGrid;
+
+/**
+ * Resolves turns on large boards by splitting the board into square chunks, each resolved on
+ * its own worker:<br>
+ * 1. every chunk decides the turns of the Organisms on it, reading its own tiles and the ring of
+ * tiles just outside it (its halo), but changing nothing;<br>
+ * 2. once every chunk has decided, every chunk applies the deaths on it and the moves that stay
+ * within it, which only change its own tiles, and puts each move onto a tile in its halo into
+ * its outbox;<br>
+ * 3. once every chunk has applied its turn, the outboxes are merged, in chunk order.<br>
+ * Organisms draw from the same random streams as under TurnResolver, and decisions are reported
+ * to the caller in the same order, so a chunked turn kills the same Organisms, with the same
+ * death messages in the same order, and leaves every Organism on the same tile and every tile
+ * with the same numbers of living and dead Organisms as a sequential one. Only the order of the
+ * Organisms within a tile (BoardTile#getOrganisms()) may differ, since each tile's arrivals and
+ * departures happen in a different order.
+ * @author Sam Paniccia
+ *
+ */
+public class ChunkedTurnResolver extends TurnResolver {
+
+  /**
+   * The chunk of an Organism that is not on the board
+   */
+  private static final int NO_CHUNK = -1;
+
+  /**
+   * The Scenario whose board is split into chunks
+   */
+  private final Scenario scenario;
+
+  /**
+   * The number of tiles along each side of a chunk
+   */
+  private final int chunkSize;
+
+  /**
+   * The number of chunks across the board
+   */
+  private final int chunkCols;
+
+  /**
+   * The number of chunks on the board
+   */
+  private final int numChunks;
+
+  /**
+   * @param chunkSize The number of tiles along each side of a chunk
+   */
+  public ChunkedTurnResolver(long seed, Scenario scenario, int chunkSize) {
+    super(seed, true);
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Chunks must be at least one tile across");
+    }
+    TileGrid grid = scenario.getGrid();
+    this.scenario = scenario;
+    this.chunkSize = chunkSize;
+    this.chunkCols = (grid.getCols() + chunkSize - 1) / chunkSize;
+    this.numChunks = this.chunkCols * ((grid.getRows() + chunkSize - 1) / chunkSize);
+  }
+
+  /**
+   * To get the chunk of the tile at the given board index
+   */
+  private int chunkOf(int tileIndex) {
+    int cols = this.scenario.getGrid().getCols();
+    int row = tileIndex / cols;
+    int col = tileIndex % cols;
+    return (row / this.chunkSize) * this.chunkCols + col / this.chunkSize;
+  }
+
+  private int chunkOf(BoardTile tile) {
+    return (tile == null) ? NO_CHUNK : this.chunkOf(this.scenario.getTileIndex(tile));
+  }
+
+  @Override
+  public String[] resolve(List<Organism> orgs, int turn,
+      BiConsumer<Integer, TurnDecision> onApplied) {
+    int size = orgs.size();
+
+    // bucket the population by chunk, keeping population order within each chunk
+    int[] chunks = new int[size];
+    int[] starts = new int[this.numChunks + 1];
+    for (int i = 0; i < size; i++) {
+      chunks[i] = this.chunkOf(orgs.get(i).getTile());
+      if (chunks[i] != NO_CHUNK) {
+        starts[chunks[i] + 1]++;
+      }
+    }
+    for (int c = 0; c < this.numChunks; c++) {
+      starts[c + 1] += starts[c];
+    }
+    int[] members = new int[starts[this.numChunks]];
+    int[] next = starts.clone();
+    for (int i = 0; i < size; i++) {
+      if (chunks[i] != NO_CHUNK) {
+        members[next[chunks[i]]++] = i;
+      }
+    }
+
+    long start = System.nanoTime();
+    TurnDecision[] decisions = new TurnDecision[size];
+    for (int i = 0; i < size; i++) {
+      if (chunks[i] == NO_CHUNK) {
+        decisions[i] = TurnDecision.NOTHING;
+      }
+    }
+    IntStream.range(0, this.numChunks).parallel().forEach(c -> {
+      for (int m = starts[c]; m < starts[c + 1]; m++) {
+        int i = members[m];
+        decisions[i] = orgs.get(i).decideTurn(RandomSource.forOrganism(this.seed, turn, i));
+      }
+    });
+    TurnMetrics.FITNESS.recordSince(start);
+
+    start = System.nanoTime();
+    String[] messages = new String[size];
+    int[][] outboxes = new int[this.numChunks][];
+    IntStream.range(0, this.numChunks).parallel().forEach(c -> {
+      int[] outbox = new int[starts[c + 1] - starts[c]];
+      int out = 0;
+      // deaths and moves never affect one another, so they are applied in two passes
+      for (int m = starts[c]; m < starts[c + 1]; m++) {
+        int i = members[m];
+        if (decisions[i].diedOf() != null) {
+          messages[i] = orgs.get(i).applyTurn(decisions[i]).orElse(null);
+        }
+      }
+      for (int m = starts[c]; m < starts[c + 1]; m++) {
+        int i = members[m];
+        BoardTile destination = decisions[i].movedTo();
+        if (destination != null) {
+          if (this.chunkOf(destination) == c) {
+            orgs.get(i).applyTurn(decisions[i]);
+          } else {
+            outbox[out++] = i;
+          }
+        }
+      }
+      outboxes[c] = (out == outbox.length) ? outbox : Arrays.copyOf(outbox, out);
+    });
+    TurnMetrics.CHUNKS.recordSince(start);
+
+    start = System.nanoTime();
+    for (int[] outbox : outboxes) {
+      for (int i : outbox) {
+        orgs.get(i).applyTurn(decisions[i]);
+      }
+      TurnMetrics.MOVES_CROSSING_CHUNKS.add(outbox.length);
+    }
+    TurnMetrics.MERGE.recordSince(start);
+
+    // report every applied decision as TurnResolver does: every death, then every move
+    ArrayList<String> deathMessages = new ArrayList<String>();
+    for (int i = 0; i < size; i++) {
+      if (decisions[i].diedOf() != null) {
+        if (messages[i] != null) {
+          deathMessages.add(messages[i]);
+          TurnMetrics.deathsOf(decisions[i].diedOf()).increment();
+        }
+        onApplied.accept(i, decisions[i]);
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      if (decisions[i].movedTo() != null) {
+        onApplied.accept(i, decisions[i]);
+      }
+    }
+    return deathMessages.toArray(new String[deathMessages.size()]);
+  }
+
+  public int getChunkSize() {
+    return this.chunkSize;
+  }
+
+  /**
+   * To get the number of chunks that the board is split into
+   */
+  public int getNumChunks() {
+    return this.numChunks;
+  }
+}
@@ -0,0 +1,327 @@
+package panic.sim;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import panic.game.Father;
+import panic.game.RandomSource;
+import panic.gene.Allele;
+import panic.gene.CoefficientTable;
+import panic.gene.Sex;
+import panic.gene.SurvivalTrait;
+import panic.gene.Trait;
+import panic.io.DataIO;
+import panic.org.PopulationStore;
+import panic.org.Species;
+import panic.scenario.Scenario;
+import panic.scenario.ScenarioTutorial;
+import panic.tile.TileGrid;
+import panic.tile.TileType;
+
+/**
+ * A headless simulation of one Scenario board and a PopulationStore, for populations far too
+ * large to hold as Organism objects.<br>
+ * Turns are decided by the same rules, from the same per-Organism random streams, as
+ * Organism#decideTurn(SplittableRandom), so for a given seed a population run here ends up
+ * exactly where the same population would in a SimulationEngine.
+ * @author Sam Paniccia
+ *
+ */
+public class ColumnarSimulationEngine {
+
+  /**
+   * Decision codes; any other decision is the board index to move to
+   */
+  private static final int STAY = -1;
+  private static final int SLAIN = -2;
+  private static final int STARVED = -3;
+
+  /**
+   * The Scenario whose board is simulated
+   */
+  private final Scenario scenario;
+
+  /**
+   * The simulated population
+   */
+  private final PopulationStore store;
+
+  /**
+   * The seed from which every turn's random streams are derived
+   */
+  private final long seed;
+
+  /**
+   * Whether Organisms decide their turns in parallel
+   */
+  private final boolean parallel;
+
+  /**
+   * The terrain of the simulated board
+   */
+  private final TileGrid grid;
+
+  /**
+   * Whether each species may move onto each TileType, indexed [Species ordinal][TileType ordinal]
+   */
+  private final boolean[][] passable;
+
+  /**
+   * The decision of each Organism for the turn being resolved
+   */
+  private int[] decisions;
+
+  private int currentTurn;
+  private long turnsRun;
+  private long nanosRun;
+
+  public ColumnarSimulationEngine(Scenario scenario, PopulationStore store, long seed,
+      boolean parallel) {
+    this(scenario, scenario.getGrid(), store, seed, parallel);
+  }
+
+  /**
+   * To simulate a bare board, which need not belong to any Scenario; neighbors are worked out
+   * from board indices, so the board costs a byte per tile
+   */
+  public ColumnarSimulationEngine(TileGrid grid, PopulationStore store, long seed,
+      boolean parallel) {
+    this(null, grid, store, seed, parallel);
+  }
+
+  private ColumnarSimulationEngine(Scenario scenario, TileGrid grid, PopulationStore store,
+      long seed, boolean parallel) {
+    this.scenario = scenario;
+    this.grid = grid;
+    this.store = store;
+    this.seed = seed;
+    this.parallel = parallel;
+    this.currentTurn = 1;
+    this.decisions = new int[0];
+
+    this.passable = new boolean[Species.values().length][TileType.values().length];
+    for (Species s : Species.values()) {
+      for (TileType t : TileType.values()) {
+        this.passable[s.ordinal()][t.ordinal()] = t.isPassableBy(s);
+      }
+    }
+  }
+
+  /**
+   * To advance the simulation by one turn
+   * @return The number of Organisms that died this turn
+   */
+  public int nextTurn() {
+    long start = System.nanoTime();
+    this.currentTurn++;
+    int size = this.store.size();
+    if (this.decisions.length < size) {
+      this.decisions = new int[size];
+    }
+
+    CoefficientTable table = CoefficientTable.getInstance();
+    int turn = this.currentTurn;
+    if (this.parallel) {
+      IntStream.range(0, size).parallel()
+          .forEach(i -> this.decisions[i] = this.decide(i, turn, table));
+    } else {
+      for (int i = 0; i < size; i++) {
+        this.decisions[i] = this.decide(i, turn, table);
+      }
+    }
+
+    int deaths = 0;
+    for (int i = 0; i < size; i++) {
+      int decision = this.decisions[i];
+      if (decision == SLAIN || decision == STARVED) {
+        this.store.kill(i);
+        deaths++;
+      } else if (decision != STAY) {
+        this.store.setTile(i, decision);
+      }
+    }
+
+    this.nanosRun += System.nanoTime() - start;
+    this.turnsRun++;
+    return deaths;
+  }
+
+  /**
+   * To decide, without changing any state, what happens to the given Organism this turn
+   */
+  private int decide(int index, int turn, CoefficientTable table) {
+    int tile = this.store.getTile(index);
+    if (tile == PopulationStore.NOT_PLACED || !this.store.isAlive(index)) {
+      return STAY;
+    }
+    Species species = this.store.getSpecies(index);
+    TileType type = this.grid.getTileType(tile);
+
+    if (this.total(index, species, type, SurvivalTrait.predation, table) < 0) {
+      return SLAIN;
+    }
+    if (this.total(index, species, type, SurvivalTrait.appetite, table) < 0) {
+      return STARVED;
+    }
+
+    SplittableRandom rand = RandomSource.forOrganism(this.seed, turn, index);
+    double mobility = this.total(index, species, type, SurvivalTrait.mobility, table)
+        + RandomSource.nextGaussian(rand);
+    if (mobility < 0) {
+      return STAY;
+    }
+
+    int destination =
+        this.grid.pickPassableNeighbor(this.passable[species.ordinal()], tile, rand);
+    return (destination < 0) ? STAY : destination;
+  }
+
+  /**
+   * To sum the genetic, tile, species-tile and species weights of the given SurvivalTrait for
+   * the given Organism, in the same order as Organism does
+   */
+  private double total(int index, Species species, TileType type, SurvivalTrait which,
+      CoefficientTable table) {
+    return this.genetic(index, species, which, table)
+        + table.getTileValue(type, which)
+        + table.getSpeciesTileValue(species, type, which)
+        + table.getSpeciesValue(species, which);
+  }
+
+  /**
+   * To average the given SurvivalTrait's weights over the given Organism's Alleles, as
+   * Chromosome#getSurvivalTraitValue(SurvivalTrait) does
+   */
+  private double genetic(int index, Species species, SurvivalTrait which,
+      CoefficientTable table) {
+    double sum = 0;
+    int count = 0;
+    for (Trait t : species.getTraits()) {
+      Allele allele = this.store.getAllele(index, t);
+      double d = table.getAlleleValue(which, allele);
+      if (d > -1) {
+        sum += d;
+        count++;
+      }
+    }
+    return sum / count;
+  }
+
+  /**
+   * To advance the simulation by the given number of turns
+   * @return The number of Organisms that died over those turns
+   */
+  public int run(int turns) {
+    int deaths = 0;
+    for (int i = 0; i < turns; i++) {
+      deaths += this.nextTurn();
+    }
+    return deaths;
+  }
+
+  // getters
+
+  public int getCurrentTurn() {
+    return this.currentTurn;
+  }
+
+  public PopulationStore getStore() {
+    return this.store;
+  }
+
+  /**
+   * To get the Scenario whose board is simulated, or null if a bare TileGrid is
+   */
+  public Scenario getScenario() {
+    return this.scenario;
+  }
+
+  public TileGrid getGrid() {
+    return this.grid;
+  }
+
+  /**
+   * To retrieve the number of living Organisms in the simulation
+   */
+  public int getPopulation() {
+    int alive = 0;
+    for (int i = 0; i < this.store.size(); i++) {
+      if (this.store.isAlive(i)) {
+        alive++;
+      }
+    }
+    return alive;
+  }
+
+  public long getTurnsRun() {
+    return this.turnsRun;
+  }
+
+  /**
+   * To retrieve the average throughput of this engine, in turns per second
+   */
+  public double getTurnsPerSecond() {
+    if (this.nanosRun == 0) {
+      return 0;
+    }
+    return this.turnsRun / (this.nanosRun / 1e9);
+  }
+
+  // headless runner
+
+  /**
+   * To run a headless columnar simulation of the tutorial Scenario, or of the board of another
+   * Scenario file, and to report its throughput
+   * @param args [turns] [population] [seed] [parallel] [board]
+   */
+  public static void main(String[] args) {
+    int turns = args.length > 0 ? Integer.valueOf(args[0]) : 100;
+    int population = args.length > 1 ? Integer.valueOf(args[1]) : 1000000;
+    long seed = args.length > 2 ? Long.valueOf(args[2]) : System.nanoTime();
+    boolean parallel = args.length > 3 && Boolean.valueOf(args[3]);
+
+    Father.initLogger();
+    RandomSource.seed(seed);
+    DataIO.loadGameData();
+    PopulationStore store = new PopulationStore(population);
+    ColumnarSimulationEngine engine;
+    if (args.length > 4) {
+      TileGrid grid = DataIO.readTileGrid(args[4]);
+      ColumnarSimulationEngine.populate(store, grid, population);
+      engine = new ColumnarSimulationEngine(grid, store, seed, parallel);
+    } else {
+      Scenario scenario = new ScenarioTutorial(null);
+      ColumnarSimulationEngine.populate(store, scenario.getGrid(), population);
+      engine = new ColumnarSimulationEngine(scenario, store, seed, parallel);
+    }
+
+    int deaths = engine.run(turns);
+    System.out.println("Seed: " + seed + (parallel ? " (parallel)" : " (sequential)"));
+    System.out.println("Board: " + engine.getGrid().getCols() + "x" + engine.getGrid().getRows()
+        + ", turns: " + engine.getTurnsRun()
+        + ", population: " + population
+        + ", deaths: " + deaths
+        + ", survivors: " + engine.getPopulation());
+    System.out.printf("Throughput: %.1f turns/s%n", engine.getTurnsPerSecond());
+  }
+
+  /**
+   * To add the given number of randomly-sexed Cyanobacteria to the store, each on a random tile
+   * of the board that it can survive on
+   * @throws IllegalStateException If no tile of the board can take a Cyanobacterium
+   */
+  private static void populate(PopulationStore store, TileGrid grid, int population) {
+    if (population > 0 && !grid.isPlaceableAnywhereBy(Species.cyanobacterium)) {
+      throw new IllegalStateException("No tile of the board can take a "
+          + Species.cyanobacterium.getName() + ".");
+    }
+    int numTiles = grid.getNumTiles();
+    for (int i = 0; i < population; i++) {
+      int tile;
+      do {
+        tile = Father.randInt(0, numTiles);
+      } while (!grid.getTileType(tile).isPlaceableBy(Species.cyanobacterium));
+      store.add(Species.cyanobacterium, Sex.randomSex(), tile);
+    }
+  }
+}
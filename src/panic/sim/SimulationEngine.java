@@ -0,0 +1,231 @@
+package panic.sim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import panic.game.Father;
+import panic.game.RandomSource;
+import panic.gene.Sex;
+import panic.io.DataIO;
+import panic.metrics.MetricsRegistry;
+import panic.org.OBactCyano;
+import panic.org.Organism;
+import panic.org.Species;
+import panic.scenario.Scenario;
+import panic.scenario.ScenarioTutorial;
+import panic.tile.BoardTile;
+
+/**
+ * A headless simulation of one Scenario board and a population of Organisms.<br>
+ * Unlike GameController#nextTurn(), advancing a turn here touches no GameState, no GUI and
+ * no player file, so thousands of turns may be run back-to-back (e.g. for balancing sweeps).
+ * @author Sam Paniccia
+ *
+ */
+public class SimulationEngine {
+
+  /**
+   * The Scenario whose board is simulated
+   */
+  private final Scenario scenario;
+
+  /**
+   * Every Organism in the simulation, placed or not, alive or dead
+   */
+  private final ArrayList<Organism> orgs;
+
+  /**
+   * Resolves each turn, sequentially or in parallel
+   */
+  private final TurnResolver resolver;
+
+  /**
+   * The turn that the simulation is on
+   */
+  private int currentTurn;
+
+  /**
+   * The number of turns run through this engine so far
+   */
+  private long turnsRun;
+
+  /**
+   * The total time spent running those turns, in nanoseconds
+   */
+  private long nanosRun;
+
+  /**
+   * @param seed The seed from which every turn's random streams are derived
+   * @param parallel Whether Organisms decide their turns in parallel
+   */
+  public SimulationEngine(Scenario scenario, long seed, boolean parallel) {
+    this(scenario, new TurnResolver(seed, parallel));
+  }
+
+  /**
+   * @param seed The seed from which every turn's random streams are derived
+   * @param chunkSize The number of tiles along each side of the chunks that the board is split
+   * into, each resolved on its own worker
+   */
+  public SimulationEngine(Scenario scenario, long seed, int chunkSize) {
+    this(scenario, new ChunkedTurnResolver(seed, scenario, chunkSize));
+  }
+
+  private SimulationEngine(Scenario scenario, TurnResolver resolver) {
+    this.scenario = scenario;
+    this.orgs = new ArrayList<Organism>();
+    this.resolver = resolver;
+    this.currentTurn = 1;
+  }
+
+  /**
+   * To add the given Organism to the simulated population without placing it
+   */
+  public void addOrganism(Organism toAdd) {
+    this.orgs.add(toAdd);
+  }
+
+  /**
+   * To add the given Organism to the population and to place it onto the tile at the given index
+   * @return Whether the Organism could be placed on that tile's terrain
+   */
+  public boolean placeOrganism(Organism toPlace, int tileIndex) {
+    BoardTile tile = this.scenario.getTile(tileIndex);
+    if (toPlace.placeOnTile(tile)) {
+      tile.addOrganism(toPlace);
+      this.orgs.add(toPlace);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * To advance the simulation by one turn
+   * @return The death messages of all Organisms that died this turn
+   */
+  public String[] nextTurn() {
+    long start = System.nanoTime();
+    this.currentTurn++;
+    String[] deathMessages = this.resolver.resolve(this.orgs, this.currentTurn);
+    this.nanosRun += System.nanoTime() - start;
+    this.turnsRun++;
+    return deathMessages;
+  }
+
+  /**
+   * To advance the simulation by the given number of turns
+   * @return The number of Organisms that died over those turns
+   */
+  public int run(int turns) {
+    int deaths = 0;
+    for (int i = 0; i < turns; i++) {
+      deaths += this.nextTurn().length;
+    }
+    return deaths;
+  }
+
+  // getters
+
+  public int getCurrentTurn() {
+    return this.currentTurn;
+  }
+
+  public Scenario getScenario() {
+    return this.scenario;
+  }
+
+  /**
+   * To retrieve every Organism in the simulation, in the order they were added
+   */
+  public List<Organism> getOrganisms() {
+    return Collections.unmodifiableList(this.orgs);
+  }
+
+  /**
+   * To retrieve the Organism of the given name, if it is alive
+   */
+  public Optional<Organism> getOrgFromName(String name) {
+    return this.orgs.stream()
+        .filter(o -> o.getName().equals(name) && o.isAlive())
+        .findFirst();
+  }
+
+  /**
+   * To retrieve the number of living Organisms in the simulation
+   */
+  public int getPopulation() {
+    return (int) this.orgs.stream()
+        .filter(o -> o.isAlive())
+        .count();
+  }
+
+  /**
+   * To retrieve the number of turns run through this engine so far
+   */
+  public long getTurnsRun() {
+    return this.turnsRun;
+  }
+
+  /**
+   * To retrieve the average throughput of this engine, in turns per second
+   */
+  public double getTurnsPerSecond() {
+    if (this.nanosRun == 0) {
+      return 0;
+    }
+    return this.turnsRun / (this.nanosRun / 1e9);
+  }
+
+  // headless runner
+
+  /**
+   * To run a headless simulation of the tutorial Scenario and to report its throughput
+   * @param args [turns] [population] [seed] [parallel] [chunk size]
+   */
+  public static void main(String[] args) {
+    int turns = args.length > 0 ? Integer.valueOf(args[0]) : 1000;
+    int population = args.length > 1 ? Integer.valueOf(args[1]) : 100;
+    long seed = args.length > 2 ? Long.valueOf(args[2]) : System.nanoTime();
+    boolean parallel = args.length > 3 && Boolean.valueOf(args[3]);
+    int chunkSize = args.length > 4 ? Integer.valueOf(args[4]) : 0;
+
+    Father.initLogger();
+    RandomSource.seed(seed);
+    DataIO.loadGameData();
+    Scenario scenario = new ScenarioTutorial(null);
+    SimulationEngine engine = (chunkSize > 0)
+        ? new SimulationEngine(scenario, seed, chunkSize)
+        : new SimulationEngine(scenario, seed, parallel);
+    engine.populate(population);
+
+    int deaths = engine.run(turns);
+    System.out.println("Seed: " + seed + ((chunkSize > 0) ? " (chunks of " + chunkSize + ")"
+        : parallel ? " (parallel)" : " (sequential)"));
+    System.out.println("Turns: " + engine.getTurnsRun()
+        + ", population: " + population
+        + ", deaths: " + deaths
+        + ", survivors: " + engine.getPopulation());
+    System.out.printf("Throughput: %.1f turns/s%n", engine.getTurnsPerSecond());
+    System.out.print(MetricsRegistry.getInstance().report());
+  }
+
+  /**
+   * To place the given number of randomly-sexed Cyanobacteria onto random tiles of the board
+   * @throws IllegalStateException If no tile of the board can take a Cyanobacterium
+   */
+  private void populate(int population) {
+    if (population > 0 && !this.scenario.getGrid().isPlaceableAnywhereBy(Species.cyanobacterium)) {
+      throw new IllegalStateException("No tile of the board can take a "
+          + Species.cyanobacterium.getName() + ".");
+    }
+    int numTiles = this.scenario.getNumTiles();
+    for (int i = 0; i < population; i++) {
+      Organism toPlace = new OBactCyano("sim" + i, Sex.randomSex());
+      while (!this.placeOrganism(toPlace, Father.randInt(0, numTiles))) {
+        // keep trying until the Organism lands on terrain it can survive on
+      }
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package panic.sim;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import panic.io.DataIO;
+import panic.gene.Sex;
+import panic.gene.SurvivalTrait;
+import panic.org.OBactCyano;
+import panic.org.Organism;
+import panic.org.PopulationStore;
+import panic.org.TurnDecision;
+import panic.scenario.ScenarioTutorial;
+
+public class TestColumnarSimulationEngine {
+
+  @BeforeClass
+  public static void init() {
+    DataIO.loadGameData();
+  }
+  
+  private static final long SEED = 20171017L;
+  
+  private static final int POPULATION = 600;
+  
+  private static final int TURNS = 20;
+  
+  private int tileIndexOf(SimulationEngine engine, int org) {
+    String name = engine.getOrganisms().get(org).getName();
+    for (int i = 0; i < engine.getScenario().getNumTiles(); i++) {
+      if (Arrays.asList(engine.getScenario().getTile(i).getOrgNamesOnTile()).contains(name)) {
+        return i;
+      }
+    }
+    return PopulationStore.NOT_PLACED;
+  }
+  
+  @Test
+  public void testMatchesSimulationEngine() {
+    SimulationEngine objects = new SimulationEngine(new ScenarioTutorial(null), SEED, false);
+    int numTiles = objects.getScenario().getNumTiles();
+    for (int i = 0; i < POPULATION; i++) {
+      objects.placeOrganism(new OBactCyano("o" + i, Sex.male), i % numTiles);
+    }
+    
+    List<Organism> orgs = objects.getOrganisms();
+    PopulationStore store = new PopulationStore(orgs.size());
+    for (int i = 0; i < orgs.size(); i++) {
+      store.add(orgs.get(i), this.tileIndexOf(objects, i));
+    }
+    ColumnarSimulationEngine columns = 
+        new ColumnarSimulationEngine(new ScenarioTutorial(null), store, SEED, true);
+    
+    for (int turn = 0; turn < TURNS; turn++) {
+      assertEquals(objects.nextTurn().length, columns.nextTurn());
+      
+      for (int i = 0; i < orgs.size(); i++) {
+        assertEquals(orgs.get(i).isAlive(), store.isAlive(i));
+        if (store.isAlive(i)) {
+          assertEquals(this.tileIndexOf(objects, i), store.getTile(i));
+        }
+      }
+    }
+  }
+  
+  @Test
+  public void testViewRoundTrip() {
+    ScenarioTutorial board = new ScenarioTutorial(null);
+    PopulationStore store = new PopulationStore(1);
+    int index = store.add(new OBactCyano("cyano", Sex.female), 0);
+    
+    Organism view = store.view(index, board);
+    assertEquals("cyano", view.getName());
+    assertEquals(Sex.female, view.getSex());
+    assertEquals(board.getTile(0), view.getTile());
+    
+    view.applyTurn(TurnDecision.death(SurvivalTrait.predation));
+    store.update(index, view);
+    assertEquals(false, store.isAlive(index));
+  }
+}
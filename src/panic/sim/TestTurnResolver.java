@@ -0,0 +1,173 @@
+package panic.sim;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import panic.io.DataIO;
+import panic.gene.Allele;
+import panic.gene.Sex;
+import panic.gene.SurvivalTrait;
+import panic.gene.Trait;
+import panic.metrics.TurnMetrics;
+import panic.org.OBactCyano;
+import panic.org.Organism;
+import panic.scenario.ScenarioTutorial;
+import panic.tile.BoardTile;
+
+public class TestTurnResolver {
+
+  @BeforeClass
+  public static void init() {
+    DataIO.loadGameData();
+  }
+  
+  private static final long SEED = 20171017L;
+  
+  private static final int POPULATION = 600;
+  
+  private static final int TURNS = 20;
+  
+  /**
+   * To create an engine with a copy of the given engine's population, placed on the same tiles
+   */
+  private SimulationEngine copyOf(SimulationEngine original, boolean parallel) {
+    return this.copyOf(original, new SimulationEngine(new ScenarioTutorial(null), SEED, parallel));
+  }
+  
+  /**
+   * To give the given empty engine a copy of the given engine's population (same names, sexes
+   * and Alleles), placed on the same tiles
+   */
+  private SimulationEngine copyOf(SimulationEngine original, SimulationEngine copy) {
+    List<Organism> orgs = original.getOrganisms();
+    for (int i = 0; i < orgs.size(); i++) {
+      Organism o = orgs.get(i);
+      Allele[] alleles = new Allele[Trait.values().length];
+      for (Trait t : o.getSpecies().getTraits()) {
+        alleles[t.ordinal()] = o.getAlleleAt(t);
+      }
+      Organism twin = Organism.restore(o.getSpecies(), o.getName(), o.getSex(), alleles, true,
+          null);
+      copy.placeOrganism(twin, this.tileIndexOf(original, i));
+    }
+    return copy;
+  }
+  
+  private int tileIndexOf(SimulationEngine engine, int org) {
+    String name = engine.getOrganisms().get(org).getName();
+    for (int i = 0; i < engine.getScenario().getNumTiles(); i++) {
+      if (Arrays.asList(engine.getScenario().getTile(i).getOrgNamesOnTile()).contains(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+  
+  private SimulationEngine populated() {
+    SimulationEngine engine = new SimulationEngine(new ScenarioTutorial(null), SEED, false);
+    int numTiles = engine.getScenario().getNumTiles();
+    for (int i = 0; i < POPULATION; i++) {
+      engine.placeOrganism(new OBactCyano("o" + i, Sex.male), i % numTiles);
+    }
+    return engine;
+  }
+  
+  @Test
+  public void testParallelMatchesSequential() {
+    SimulationEngine template = this.populated();
+    SimulationEngine sequential = this.copyOf(template, false);
+    SimulationEngine parallel = this.copyOf(template, true);
+    
+    for (int turn = 0; turn < TURNS; turn++) {
+      assertEquals(sequential.nextTurn().length, parallel.nextTurn().length);
+      
+      for (int i = 0; i < POPULATION; i++) {
+        assertEquals(sequential.getOrganisms().get(i).isAlive(), 
+            parallel.getOrganisms().get(i).isAlive());
+        assertEquals(this.tileIndexOf(sequential, i), this.tileIndexOf(parallel, i));
+      }
+    }
+  }
+  
+  /**
+   * To resolve the given turn with the given resolver, recording every applied decision it
+   * reports as a String
+   * @return The death messages
+   */
+  private String[] resolve(TurnResolver resolver, SimulationEngine engine, int turn,
+      List<String> applied) {
+    return resolver.resolve(engine.getOrganisms(), turn, (i, decision) -> applied.add(i + " "
+        + ((decision.diedOf() != null) ? decision.diedOf().name()
+            : engine.getScenario().getTileIndex(decision.movedTo()))));
+  }
+  
+  @Test
+  public void testChunkedMatchesSequential() {
+    SimulationEngine template = this.populated();
+    SimulationEngine sequential = this.copyOf(template, false);
+    SimulationEngine chunked = this.copyOf(template, false);
+    TurnResolver byOrganism = new TurnResolver(SEED, false);
+    // chunks of 3 do not divide the 8x8 board evenly
+    TurnResolver byChunk = new ChunkedTurnResolver(SEED, chunked.getScenario(), 3);
+    
+    for (int turn = 1; turn <= TURNS; turn++) {
+      List<String> sequentialApplied = new ArrayList<String>();
+      List<String> chunkedApplied = new ArrayList<String>();
+      assertArrayEquals(this.resolve(byOrganism, sequential, turn, sequentialApplied),
+          this.resolve(byChunk, chunked, turn, chunkedApplied));
+      assertEquals(sequentialApplied, chunkedApplied);
+      
+      for (int i = 0; i < POPULATION; i++) {
+        assertEquals(sequential.getOrganisms().get(i).isAlive(), 
+            chunked.getOrganisms().get(i).isAlive());
+        assertEquals(this.tileIndexOf(sequential, i), this.tileIndexOf(chunked, i));
+      }
+      for (int i = 0; i < sequential.getScenario().getNumTiles(); i++) {
+        BoardTile was = sequential.getScenario().getTile(i);
+        BoardTile is = chunked.getScenario().getTile(i);
+        assertEquals(was.getNumOrganisms(), is.getNumOrganisms());
+        assertEquals(was.getNumDead(), is.getNumDead());
+        // the order of the Organisms within a tile may differ
+        assertEquals(new HashSet<String>(Arrays.asList(was.getOrgNamesOnTile())),
+            new HashSet<String>(Arrays.asList(is.getOrgNamesOnTile())));
+      }
+    }
+  }
+  
+  /**
+   * To get the number of deaths of every cause counted so far
+   */
+  private long countedDeaths() {
+    long deaths = 0;
+    for (SurvivalTrait cause : new SurvivalTrait[] { SurvivalTrait.predation,
+        SurvivalTrait.appetite }) {
+      deaths += TurnMetrics.deathsOf(cause).get();
+    }
+    return deaths;
+  }
+  
+  @Test
+  public void testDeathsAreCountedOnce() {
+    SimulationEngine template = this.populated();
+    SimulationEngine sequential = this.copyOf(template, false);
+    SimulationEngine chunked = this.copyOf(template,
+        new SimulationEngine(new ScenarioTutorial(null), SEED, 3));
+    
+    for (SimulationEngine engine : new SimulationEngine[] { sequential, chunked }) {
+      long counted = this.countedDeaths();
+      int deaths = 0;
+      for (int turn = 0; turn < TURNS; turn++) {
+        deaths += engine.nextTurn().length;
+      }
+      assertEquals(deaths, this.countedDeaths() - counted);
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package panic.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+
+import panic.game.RandomSource;
+import panic.metrics.TurnMetrics;
+import panic.org.Organism;
+import panic.org.TurnDecision;
+
+/**
+ * Resolves one turn for a whole population in two phases:<br>
+ * 1. every Organism decides whether it dies and where it moves, reading only the board;<br>
+ * 2. the decisions are applied in population order, deaths first and then moves, which is the
+ * only time BoardTile membership changes.<br>
+ * Deaths are counted by cause here, as they happen, rather than by Organism#die, which also
+ * replays deaths from the journal.<br>
+ * Phase 1 may be split across cores with fork/join. Each Organism draws from its own random
+ * stream, derived from the seed, the turn and its position in the population, so the parallel
+ * mode gives exactly the same results as the sequential mode for a given seed.
+ * @author Sam Paniccia
+ *
+ */
+public class TurnResolver {
+
+  /**
+   * The largest number of Organisms decided by a single fork/join task
+   */
+  private static final int PARALLEL_THRESHOLD = 256;
+
+  /**
+   * The seed from which all per-Organism random streams are derived
+   */
+  protected final long seed;
+
+  /**
+   * Whether phase 1 is split across cores
+   */
+  private final boolean parallel;
+
+  public TurnResolver(long seed, boolean parallel) {
+    this.seed = seed;
+    this.parallel = parallel;
+  }
+
+  /**
+   * To resolve the given turn for the given population
+   * @return The death messages of all Organisms that died this turn, in population order
+   */
+  public String[] resolve(List<Organism> orgs, int turn) {
+    return this.resolve(orgs, turn, (i, decision) -> { });
+  }
+
+  /**
+   * To resolve the given turn for the given population, reporting every decision other than
+   * TurnDecision.NOTHING once it has been applied (every death, then every move)
+   * @param onApplied Accepts the population index of each Organism and its applied decision
+   * @return The death messages of all Organisms that died this turn, in population order
+   */
+  public String[] resolve(List<Organism> orgs, int turn,
+      BiConsumer<Integer, TurnDecision> onApplied) {
+    long start = System.nanoTime();
+    TurnDecision[] decisions = new TurnDecision[orgs.size()];
+    DecideTask decide = new DecideTask(orgs, turn, decisions, 0, decisions.length);
+    if (this.parallel) {
+      ForkJoinPool.commonPool().invoke(decide);
+    } else {
+      decide.compute();
+    }
+    TurnMetrics.FITNESS.recordSince(start);
+
+    // deaths and moves never affect one another, so they are applied in two passes
+    start = System.nanoTime();
+    ArrayList<String> deathMessages = new ArrayList<String>();
+    for (int i = 0; i < decisions.length; i++) {
+      if (decisions[i].diedOf() != null) {
+        Optional<String> maybeDied = orgs.get(i).applyTurn(decisions[i]);
+        if (maybeDied.isPresent()) {
+          deathMessages.add(maybeDied.get());
+          TurnMetrics.deathsOf(decisions[i].diedOf()).increment();
+        }
+        onApplied.accept(i, decisions[i]);
+      }
+    }
+    TurnMetrics.DEATHS.recordSince(start);
+
+    start = System.nanoTime();
+    for (int i = 0; i < decisions.length; i++) {
+      if (decisions[i].movedTo() != null) {
+        orgs.get(i).applyTurn(decisions[i]);
+        onApplied.accept(i, decisions[i]);
+      }
+    }
+    TurnMetrics.MOVEMENT.recordSince(start);
+    return deathMessages.toArray(new String[deathMessages.size()]);
+  }
+
+  public boolean isParallel() {
+    return this.parallel;
+  }
+
+  /**
+   * Decides the turns of the Organisms in [lo, hi), splitting the range in two until it is
+   * small enough to decide directly
+   */
+  private class DecideTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<Organism> orgs;
+    private final int turn;
+    private final TurnDecision[] decisions;
+    private final int lo;
+    private final int hi;
+
+    DecideTask(List<Organism> orgs, int turn, TurnDecision[] decisions, int lo, int hi) {
+      this.orgs = orgs;
+      this.turn = turn;
+      this.decisions = decisions;
+      this.lo = lo;
+      this.hi = hi;
+    }
+
+    @Override
+    protected void compute() {
+      if (!parallel || this.hi - this.lo <= TurnResolver.PARALLEL_THRESHOLD) {
+        for (int i = this.lo; i < this.hi; i++) {
+          Organism o = this.orgs.get(i);
+          this.decisions[i] = o.decideTurn(RandomSource.forOrganism(seed, this.turn, i));
+        }
+      } else {
+        int mid = (this.lo + this.hi) >>> 1;
+        RecursiveAction.invokeAll(
+            new DecideTask(this.orgs, this.turn, this.decisions, this.lo, mid),
+            new DecideTask(this.orgs, this.turn, this.decisions, mid, this.hi));
+      }
+    }
+  }
+}
@@ -118,6 +118,10 @@ public class StateBreed extends GameState {
       
       @Override
       public void onTextInput(String in) {
+        if (this.gc.isOrgNameTaken(in)) {
+          this.gc.setText("\nYou already have an Organism named " + in + "! Try another name.");
+          return;
+        }
         name = in;
         this.gc.nextSubstate();
       }
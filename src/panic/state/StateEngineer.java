@@ -95,7 +95,7 @@ public class StateEngineer extends GameState {
         Optional<Allele> maybeAllele = this.gc.getAlleleFromName(in);
         if (maybeAllele.isPresent()) {
           Allele allele = maybeAllele.get();
-          toEngineer.setGene(traitToEngineer, allele);
+          this.gc.engineerOrganism(toEngineer, traitToEngineer, allele);
           this.gc.setText("\nEngineering complete! View your engineered Organism. Press the 'Back' button to "
               + "return!");
           this.gc.repaint();
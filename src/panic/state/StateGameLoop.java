@@ -75,6 +75,13 @@ public class StateGameLoop extends GameState {
         }
       } else {
         this.gc.setText("\nNo Organisms on this tile.");
+        BoardTile[] occupied = this.gc.getTilesWithMoreThan(0);
+        if (occupied.length != 0) {
+          this.gc.addText("\nYour Organisms are on the tiles at:");
+          for (BoardTile t : occupied) {
+            this.gc.addText(" " + t);
+          }
+        }
       }
     }
   }
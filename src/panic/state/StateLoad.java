@@ -28,10 +28,19 @@ public class StateLoad extends GameState {
       
       @Override
       public void onTextInput(String name) { 
+        if (!this.gc.isPlayerNameValid(name)) {
+          this.gc.setText("\nThere is no saved file for " + name + ".");
+          return;
+        }
+        if (!this.gc.claimPlayerName(name)) {
+          this.gc.setText("\nSomeone else is playing as " + name + " right now.");
+          return;
+        }
         if (this.gc.loadPlayer(name)) {
           playerName = name;
           gc.nextSubstate();
         } else { 
+          this.gc.releasePlayerName();
           this.gc.setText("\nThere is no saved file for "
               + name + ".");
         }
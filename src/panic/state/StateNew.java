@@ -39,6 +39,15 @@ public class StateNew extends GameState {
 
       @Override
       public void onTextInput(String name) {
+        if (!gc.isPlayerNameValid(name)) {
+          gc.setText("\nNames may only have letters, digits, - and _, and at most 32 of them. "
+              + "Try another name.");
+          return;
+        }
+        if (!gc.claimPlayerName(name)) {
+          gc.setText("\nSomeone else is playing as " + name + " right now! Try another name.");
+          return;
+        }
         gc.newPlayer(name);
         playerName = name; 
         gc.nextSubstate();
@@ -58,6 +67,10 @@ public class StateNew extends GameState {
       
       @Override
       public void onTextInput(String firstOrgName) {
+        if (gc.isOrgNameTaken(firstOrgName)) {
+          gc.setText("\nYou already have an Organism named " + firstOrgName + "! Try another name.");
+          return;
+        }
         Organism toAdd = new OBactCyano(firstOrgName, Sex.male); 
         gc.addOrganism(toAdd); 
         gc.nextSubstate();
@@ -73,6 +86,10 @@ public class StateNew extends GameState {
       
       @Override
       public void onTextInput(String secondOrgName) {
+        if (gc.isOrgNameTaken(secondOrgName)) {
+          gc.setText("\nYou already have an Organism named " + secondOrgName + "! Try another name.");
+          return;
+        }
         Organism toAdd = new OBactCyano(secondOrgName, Sex.female); 
         gc.addOrganism(toAdd); 
         gc.repaint();
@@ -72,8 +72,7 @@ public class StatePlace extends GameState {
       public void onMouseClick(int x, int y) {
         BoardTile clicked = this.gc.determineTileFromClick(x, y); 
         if (clicked != null) {
-          if (toPlace.placeOnTile(clicked)) {
-            clicked.addOrganism(toPlace);
+          if (this.gc.placeOrganism(toPlace, clicked)) {
             this.gc.nextSubstate();
             this.gc.repaint();
           } else {
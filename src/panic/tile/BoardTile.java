@@ -1,19 +1,24 @@
 package panic.tile;
-import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
 
 import panic.game.Father;
-import panic.gene.MapKeyGenerator;
 import panic.gene.SurvivalTrait;
-import panic.io.DataIO;
 import panic.org.Organism;
+import panic.org.Species;
 
 public abstract class BoardTile implements Serializable { 
   private static final long serialVersionUID = 636611276565246451L;
 
+  private static final Organism[] NO_OCCUPANTS = new Organism[0];
+
   /**
    * Board index in the x dimension 
    */
@@ -30,64 +35,116 @@ public abstract class BoardTile implements Serializable {
   protected static final int size = 48;
   
   /**
-   * Color of tile border
+   * The living Organisms on this BoardTile in its first numOrgs slots. Each knows its own slot
+   * (Organism#getTileSlot()), so that it may be removed in constant time.
    */
-  protected final Color COLOR_BORDER = new Color(0xffffff);
-
+  protected transient Organism[] occupants;
+  
   /**
-   * Color of tile 
+   * The number of living Organisms on this BoardTile
    */
-  protected Color COLOR_FILL;
+  protected transient int numOrgs;
   
   /**
-   * Color of number indication of how many Organisms are on this tile
+   * The living Organisms of a BoardTile saved before the occupants array existed, or null. Moved
+   * into the occupants array by #buryTheDead().
    */
-  protected Color COLOR_NUM_ORGS;
+  protected ArrayList<Organism> orgs;
   
   /**
-   * Color of grave, to show that an Organism died here
+   * The number of Organisms that have died on this BoardTile
    */
-  protected Color COLOR_GRAVE;
+  protected int numDead;
   
   /**
-   * A list of all Organisms on this BoardTile
+   * The board this BoardTile was created for, which creates its neighbors when they are needed,
+   * or null if it is on no board
    */
-  protected ArrayList<Organism> orgs;
+  protected transient TileGrid grid;
   
   /**
-   * The BoardTile to this BoardTile's corresponding direction on the board
+   * The board index of this BoardTile on this.grid
    */
-  protected BoardTile above, below, left, right;
+  protected transient int index;
   
   /**
-   * A list of all neighbors
+   * This BoardTile's slot in its board's index of occupied tiles (TileGrid#getOccupiedTiles()),
+   * or -1 if it is not in it
    */
-  protected ArrayList<BoardTile> neighbors;
+  protected transient int occupiedSlot;
   
   /**
-   * A String representation of this Tile
+   * The board indices of the bordering tiles that each species is able to move onto, indexed by
+   * Species ordinal, or null if not yet built
    */
-  protected String tileName; 
+  protected transient volatile int[][] passableIndices;
   
-  protected static final HashMap<String, Double> traitValues = 
-      DataIO.loadTileValues(); 
+  /**
+   * Whether Organisms have arrived on, left or died on this Tile since it was last rendered, and
+   * so whether it is waiting in its board's tiles to render again (TileGrid#takeDirtyTiles())
+   */
+  protected transient volatile boolean dirty;
   
   public BoardTile(int col, int row) { 
     this.x = row;
     this.y = col;
-    this.COLOR_FILL = this.assignColorFill();
-    this.COLOR_NUM_ORGS = this.assignColorNumOrgs();
-    this.COLOR_GRAVE = this.assignColorGrave();
-    this.neighbors = new ArrayList<BoardTile>();
-    this.orgs = new ArrayList<Organism>();
-    this.tileName = this.setTileName(); 
+    this.occupants = BoardTile.NO_OCCUPANTS;
+    this.occupiedSlot = -1;
   } 
   
   /**
-   * To set the name for this type of BoardTile
-   * @return
+   * To put this BoardTile on the given board, at the given index
+   */
+  void attach(TileGrid grid, int index) {
+    this.grid = grid;
+    this.index = index;
+    this.passableIndices = null;
+    this.occupiedSlot = -1;
+    // a board renders every tile when it is first rendered
+    this.dirty = false;
+    this.updateOccupied();
+  }
+  
+  /**
+   * To get this BoardTile's slot in its board's index of occupied tiles, or -1 if it is not in it
+   */
+  int getOccupiedSlot() {
+    return this.occupiedSlot;
+  }
+  
+  void setOccupiedSlot(int slot) {
+    this.occupiedSlot = slot;
+  }
+  
+  /**
+   * To add this BoardTile to its board's index of occupied tiles if an Organism, living or dead,
+   * is now on it, or to remove it if none is
+   */
+  private void updateOccupied() {
+    boolean occupied = this.numOrgs > 0 || this.numDead > 0;
+    if (this.grid != null && occupied != (this.occupiedSlot >= 0)) {
+      this.grid.setOccupied(this, occupied);
+    }
+  }
+  
+  /**
+   * To get the board this BoardTile is on, or null if it is on none
+   */
+  public TileGrid getGrid() {
+    return this.grid;
+  }
+  
+  /**
+   * To get the board index of this BoardTile on its board
+   */
+  public int getIndex() {
+    return this.index;
+  }
+  
+  /**
+   * To get the type of this BoardTile
    */
-  protected abstract String setTileName(); 
+  public abstract TileType getTileType(); 
   
   /**
    * To get the Organism-Tile-Trait weight for this Tile, the given Organism species, and the given
@@ -96,15 +153,15 @@ public abstract class BoardTile implements Serializable {
    * @param trait
    * @return
    */
-  public double getSurvivalTraitForOrganism(String species, SurvivalTrait trait) {
-    String key = MapKeyGenerator.tileAndSpeciesToKey(this, species);
-    return trait.getTileOrganismValue(key);
+  public double getSurvivalTraitForOrganism(Species species, SurvivalTrait trait) {
+    return this.getTileType().getSurvivalTraitForOrganism(species, trait);
   }
   
+  /**
+   * To get the Tile-Trait weight for this type of Tile and the given SurvivalTrait
+   */
   public double getTraitValue(SurvivalTrait which) {
-    //String key = which + this.tileName; 
-    String key = MapKeyGenerator.tileAndTraitToKey(this, which);
-    return BoardTile.traitValues.get(key);
+    return this.getTileType().getTraitValue(which);
   }
 
   /**
@@ -119,15 +176,61 @@ public abstract class BoardTile implements Serializable {
    * To render this Tile on the PlayPanel with the given x- and y-offset
    */
   public void draw(Graphics2D g, int offX, int offY) {
-    int x = this.x * BoardTile.size + offX;
-    int y = this.y * BoardTile.size + offY;
-    g.setColor(this.COLOR_FILL);
+    this.drawTerrain(g, offX, offY);
+    this.drawOrganisms(g, this.x * BoardTile.size + offX, this.y * BoardTile.size + offY);
+  }
+  
+  /**
+   * To render the terrain of this Tile, which never changes, with the given x- and y-offset
+   */
+  public void drawTerrain(Graphics2D g, int offX, int offY) {
+    BoardTile.drawTerrain(g, this.getTileType(), this.x * BoardTile.size + offX,
+        this.y * BoardTile.size + offY);
+  }
+  
+  /**
+   * To render the terrain of a tile of the given type whose top left corner is at the given
+   * pixel, so that terrain may be rendered without any BoardTile
+   */
+  static void drawTerrain(Graphics2D g, TileType type, int x, int y) {
+    g.setColor(type.getColorFill());
     g.fillRect(x, y, BoardTile.size, BoardTile.size);
-    g.setColor(this.COLOR_BORDER);
+    g.setColor(TileType.COLOR_BORDER);
     g.drawRect(x, y, BoardTile.size, BoardTile.size);
-     
-    this.drawOrganisms(g, x, y);
-    
+    if (type == TileType.mountain) {
+      MountainTile.drawPeak(g, x + (BoardTile.size / 2), y + (BoardTile.size / 2));
+    }
+  }
+  
+  /**
+   * To get the area this Tile is rendered in, border included, without any offset
+   */
+  public Rectangle getBounds() {
+    return new Rectangle(this.x * BoardTile.size, this.y * BoardTile.size, 
+        BoardTile.size + 1, BoardTile.size + 1);
+  }
+  
+  boolean isDirty() {
+    return this.dirty;
+  }
+  
+  void setDirty(boolean dirty) {
+    this.dirty = dirty;
+  }
+  
+  /**
+   * To mark this Tile to be rendered again, adding it to its board's tiles to render again the
+   * first time it changes since it was last rendered
+   */
+  private void markDirty() {
+    if (this.dirty) {
+      return;
+    }
+    if (this.grid != null) {
+      this.grid.markDirty(this);
+    } else {
+      this.dirty = true;
+    }
   }
   
   /**
@@ -137,21 +240,19 @@ public abstract class BoardTile implements Serializable {
     int textX = x + 5;
     int textY = y + 15;
     
-    int numOrgs = (int) this.orgs.stream() 
-        .filter(o -> o.isAlive())
-        .count();
-        
+    int numOrgs = this.numOrgs;
     
     if (numOrgs > 0) {
       String num = String.valueOf(numOrgs); 
-      g.setColor(this.COLOR_NUM_ORGS);
+      g.setColor(this.getTileType().getColorNumOrgs());
       g.drawString(num, textX, textY);
     } 
     
-    if (numOrgs != this.orgs.size()) {
+    if (this.numDead > 0) {
       textY -= 10;
-      textX += BoardTile.size - (textX / BoardTile.size) - 6;
-      g.setColor(this.COLOR_GRAVE);
+      // keep the grave inside this Tile, so that it is redrawn along with it
+      textX = x + BoardTile.size - 8;
+      g.setColor(this.getTileType().getColorGrave());
       g.fillArc(textX, textY, 6, 6, 0, 180);
       textY += 3;
       g.fillRect(textX, textY, 6, 6);
@@ -163,7 +264,7 @@ public abstract class BoardTile implements Serializable {
    * @return
    */
   public String toKey() {
-    return this.tileName;
+    return this.getTileType().getName();
   }
   
   @Override
@@ -171,23 +272,6 @@ public abstract class BoardTile implements Serializable {
     return "(" + this.x + "," + this.y + ")";
   } 
   
-  /**
-   * To assign the inner color of this Tile
-   * @return
-   */
-  protected abstract Color assignColorFill();
-  
-  /**
-   * To assign the color of the text representing the number of Organisms on this Tile
-   * @return
-   */
-  protected abstract Color assignColorNumOrgs();
-  
-  /**
-   * To assign the color of the grave symbol
-   */
-  protected abstract Color assignColorGrave();
-
   /**
    * To determine which tile was clicked, given the coordinates of the click
    * @param x
@@ -219,50 +303,161 @@ public abstract class BoardTile implements Serializable {
    * To add an Organism to this BoardTile
    */
   public void addOrganism(Organism toAdd) {
-    this.orgs.add(toAdd);
+    if (toAdd.isAlive()) {
+      if (this.numOrgs == this.occupants.length) {
+        this.occupants = Arrays.copyOf(this.occupants, Math.max(4, this.numOrgs * 2));
+      }
+      toAdd.setTileSlot(this.numOrgs);
+      this.occupants[this.numOrgs++] = toAdd;
+    } else {
+      this.numDead++;
+    }
+    this.markDirty();
+    this.updateOccupied();
+  }
+  
+  /**
+   * To remove the given Organism from the living Organisms on this BoardTile, by moving the
+   * last of them into its slot
+   * @return Whether the Organism was on this BoardTile
+   */
+  private boolean removeOrganism(Organism toRemove) {
+    int slot = toRemove.getTileSlot();
+    if (slot < 0 || slot >= this.numOrgs || this.occupants[slot] != toRemove) {
+      return false;
+    }
+    Organism last = this.occupants[--this.numOrgs];
+    this.occupants[slot] = last;
+    last.setTileSlot(slot);
+    this.occupants[this.numOrgs] = null;
+    toRemove.setTileSlot(-1);
+    return true;
+  }
+  
+  /**
+   * To move the given Organism, which has just died on this BoardTile, into its graveyard
+   */
+  public void buryOrganism(Organism dead) {
+    this.removeOrganism(dead);
+    this.numDead++;
+    this.markDirty();
+    this.updateOccupied();
+  }
+  
+  /**
+   * To move the Organisms of a BoardTile saved before the occupants array existed into it, and
+   * any dead among them into the graveyard. Tiles saved before the graveyard existed kept the
+   * dead among the living.
+   */
+  public void buryTheDead() {
+    this.occupants = BoardTile.NO_OCCUPANTS;
+    this.numOrgs = 0;
+    if (this.orgs != null) {
+      for (Organism o : this.orgs) {
+        this.addOrganism(o);
+      }
+      this.orgs = null;
+    }
+    this.updateOccupied();
+  }
+
+  /**
+   * To get every living Organism on this BoardTile. The list is a view, which is only valid
+   * until the next Organism arrives on or leaves this BoardTile.
+   */
+  public List<Organism> getOrganisms() {
+    return Collections.unmodifiableList(Arrays.asList(this.occupants).subList(0, this.numOrgs));
   }
 
   public String[] getOrgNamesOnTile() {
-    return this.orgs.stream()
-        .filter(o -> o.isAlive())
-        .map(o -> o.getName())
-        .toArray(s -> new String[s]);
+    String[] names = new String[this.numOrgs];
+    for (int i = 0; i < names.length; i++) {
+      names[i] = this.occupants[i].getName();
+    }
+    return names;
+  }
+  
+  /**
+   * To get the number of living Organisms on this BoardTile
+   */
+  public int getNumOrganisms() {
+    return this.numOrgs;
+  }
+  
+  /**
+   * To get the number of Organisms that have died on this BoardTile
+   */
+  public int getNumDead() {
+    return this.numDead;
   }
 
-  public void setRight(BoardTile right) {
-    this.right = right;
-    this.neighbors.add(right);
-    right.left = this;
-    right.neighbors.add(this);
-  }
-  
-  public void setBelow(BoardTile below) {
-    this.below = below;
-    this.neighbors.add(below);
-    below.above = this;
-    below.neighbors.add(this);
-  }
-  
-  public BoardTile moveOrganism(Organism toMove, String species) {
-    Father.log("\tOrganism is currently on Tile " + this.toString() + ".");
-    BoardTile destination = null;
-    double mobility = -2;
-    // continue while it is impossible to do so
-    while (mobility < -1) {
-      int rand = Father.randInt(0, this.neighbors.size()); 
-      destination = this.neighbors.get(rand);
-      mobility = destination.getSurvivalTraitForOrganism(species, SurvivalTrait.mobility); 
+  /**
+   * To get every BoardTile bordering this one, in the order above, left, right, below, creating
+   * any not yet created
+   */
+  public List<BoardTile> getNeighbors() {
+    if (this.grid == null) {
+      return Collections.emptyList();
     }
-    
+    return Collections.unmodifiableList(Arrays.asList(
+        this.grid.getTiles(this.grid.getNeighborIndices(this.index))));
+  }
+  
+  /**
+   * To get every bordering BoardTile that the given species is able to move onto, in the same
+   * order as #getNeighbors(), creating any not yet created
+   */
+  public BoardTile[] getPassableNeighbors(Species species) {
+    if (this.grid == null) {
+      return new BoardTile[0];
+    }
+    return this.grid.getTiles(this.getPassableIndices(species));
+  }
+  
+  /**
+   * To get the board indices of every bordering tile that the given species is able to move
+   * onto, in the same order as #getNeighbors()
+   */
+  private int[] getPassableIndices(Species species) {
+    int[][] passable = this.passableIndices;
+    if (passable == null) {
+      passable = new int[Species.values().length][];
+      for (Species s : Species.values()) {
+        passable[s.ordinal()] = this.grid.getPassableNeighborIndices(s, this.index);
+      }
+      this.passableIndices = passable;
+    }
+    return passable[species.ordinal()];
+  }
+  
+  /**
+   * To pick, at random, a bordering BoardTile that the given species is able to move onto. Only
+   * the destination is created, if it had not been yet.
+   * @param rand The random stream of the moving Organism
+   * @return The destination, or nothing if the species cannot move onto any bordering BoardTile
+   */
+  public Optional<BoardTile> chooseDestination(Species species, SplittableRandom rand) {
+    Father.trace(() -> "\tOrganism is currently on Tile " + this.toString() + ".");
+    if (this.grid == null) {
+      return Optional.empty();
+    }
+    int[] passable = this.getPassableIndices(species);
+    if (passable.length == 0) {
+      return Optional.empty();
+    }
+    return Optional.of(this.grid.getTile(passable[rand.nextInt(passable.length)]));
+  }
+  
+  /**
+   * To move the given Organism from this BoardTile onto the given destination
+   * @return The destination
+   */
+  public BoardTile moveOrganism(Organism toMove, BoardTile destination) {
+    this.removeOrganism(toMove);
     destination.addOrganism(toMove);
-    this.orgs.remove(toMove);
-    Father.log("\tOrganism moved to " + destination.toString());
+    this.markDirty();
+    this.updateOccupied();
+    Father.trace(() -> "\tOrganism moved to " + destination.toString());
     return destination;
   }
 }
-
-
-
-
-
-
@@ -1,7 +1,5 @@
 package panic.tile;
 
-import java.awt.Color;
-
 public class DeepOceanTile extends BoardTile {  
   private static final long serialVersionUID = -1438260943346091324L;
 
@@ -10,23 +8,8 @@ public class DeepOceanTile extends BoardTile {
   } 
 
   @Override
-  protected Color assignColorFill() {
-    return new Color(0x004fce);
-  }
-
-  @Override
-  protected Color assignColorNumOrgs() {
-    return new Color(0xeeeeee);
-  } 
-  
-  @Override
-  public Color assignColorGrave() {
-    return new Color(0xeeeeee);
-  }
-
-  @Override
-  protected String setTileName() {
-    return "Deep Ocean";
+  public TileType getTileType() {
+    return TileType.deep_ocean;
   }
 
 }
@@ -0,0 +1,109 @@
+package panic.tile;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import panic.gene.Sex;
+import panic.io.DataIO;
+import panic.org.OBactCyano;
+import panic.org.Organism;
+import panic.scenario.Scenario;
+import panic.scenario.ScenarioTutorial;
+
+public class TestBoardTile {
+
+  @BeforeClass
+  public static void init() {
+    DataIO.loadGameData();
+  }
+
+  private Organism[] placeOn(BoardTile tile, int count) {
+    Organism[] orgs = new Organism[count];
+    for (int i = 0; i < count; i++) {
+      orgs[i] = new OBactCyano("org" + i, Sex.randomSex());
+      orgs[i].placeOnTile(tile);
+      tile.addOrganism(orgs[i]);
+    }
+    return orgs;
+  }
+
+  @Test
+  public void testMovesAndBurials() {
+    Scenario scenario = new ScenarioTutorial(null);
+    BoardTile from = scenario.getTile(0);
+    BoardTile to = scenario.getTile(1);
+    Organism[] orgs = this.placeOn(from, 10);
+
+    from.moveOrganism(orgs[0], to);
+    from.moveOrganism(orgs[5], to);
+    from.buryOrganism(orgs[8]);
+    from.buryOrganism(orgs[9]);
+
+    assertEquals(6, from.getNumOrganisms());
+    assertEquals(2, from.getNumDead());
+    assertEquals(2, to.getNumOrganisms());
+    assertEquals(new HashSet<String>(Arrays.asList("org1", "org2", "org3", "org4", "org6",
+        "org7")), new HashSet<String>(Arrays.asList(from.getOrgNamesOnTile())));
+    for (int i = 0; i < from.getNumOrganisms(); i++) {
+      assertEquals(i, from.getOrganisms().get(i).getTileSlot());
+    }
+    assertEquals(-1, orgs[9].getTileSlot());
+  }
+
+  @Test
+  public void testTilesWithMoreThan() {
+    Scenario scenario = new ScenarioTutorial(null);
+    this.placeOn(scenario.getTile(3), 2);
+    this.placeOn(scenario.getTile(7), 5);
+    assertArrayEquals(new int[] { 3, 7 }, scenario.getTilesWithMoreThan(0));
+    assertArrayEquals(new int[] { 7 }, scenario.getTilesWithMoreThan(2));
+    assertTrue(scenario.getTilesWithMoreThan(5).length == 0);
+  }
+
+  @Test
+  public void testOccupiedTilesFollowMoves() {
+    Scenario scenario = new ScenarioTutorial(null);
+    BoardTile from = scenario.getTile(3);
+    BoardTile to = scenario.getTile(4);
+    Organism[] orgs = this.placeOn(from, 2);
+
+    from.moveOrganism(orgs[0], to);
+    assertArrayEquals(new int[] { 3, 4 }, scenario.getTilesWithMoreThan(0));
+    from.moveOrganism(orgs[1], to);
+    assertArrayEquals(new int[] { 4 }, scenario.getTilesWithMoreThan(0));
+    assertArrayEquals(new BoardTile[] { to }, scenario.getGrid().getOccupiedTiles());
+
+    // a tile with a grave is still drawn, but has no living Organisms
+    to.buryOrganism(orgs[0]);
+    to.moveOrganism(orgs[1], from);
+    assertArrayEquals(new int[] { 3 }, scenario.getTilesWithMoreThan(0));
+    assertEquals(new HashSet<BoardTile>(Arrays.asList(from, to)),
+        new HashSet<BoardTile>(Arrays.asList(scenario.getGrid().getOccupiedTiles())));
+  }
+
+  @Test
+  public void testChangedTilesAreQueuedOnce() {
+    Scenario scenario = new ScenarioTutorial(null);
+    TileGrid grid = scenario.getGrid();
+    BoardTile from = scenario.getTile(3);
+    BoardTile to = scenario.getTile(4);
+    Organism[] orgs = this.placeOn(from, 2);
+    assertArrayEquals(new BoardTile[] { from }, grid.takeDirtyTiles());
+    assertEquals(0, grid.takeDirtyTiles().length);
+
+    // a tile that has just become empty must be drawn again too
+    from.moveOrganism(orgs[0], to);
+    from.moveOrganism(orgs[1], to);
+    to.buryOrganism(orgs[0]);
+    assertArrayEquals(new BoardTile[] { to, from }, grid.takeDirtyTiles());
+    assertEquals(0, from.getNumOrganisms());
+    assertEquals(0, grid.takeDirtyTiles().length);
+  }
+}
@@ -0,0 +1,128 @@
+package panic.tile;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import panic.io.DataIO;
+import panic.org.Species;
+import panic.scenario.ScenarioTutorial;
+
+public class TestTileGrid {
+
+  private static TileGrid grid;
+
+  private static BoardTile[] tiles;
+
+  @BeforeClass
+  public static void init() {
+    DataIO.loadGameData();
+    grid = DataIO.readTileGrid(ScenarioTutorial.KEY);
+    tiles = grid.createTiles();
+  }
+
+  private int[] indicesOf(BoardTile[] neighbors) {
+    return Arrays.stream(neighbors)
+        .mapToInt(t -> Arrays.asList(tiles).indexOf(t))
+        .toArray();
+  }
+
+  @Test
+  public void testTileTypes() {
+    assertEquals(8, grid.getRows());
+    assertEquals(8, grid.getCols());
+    assertEquals(TileType.deep_ocean, grid.getTileType(0));
+    assertEquals(TileType.mountain, grid.getTileType(grid.indexOf(7, 7)));
+    for (int i = 0; i < tiles.length; i++) {
+      assertEquals(tiles[i].getTileType(), grid.getTileType(i));
+    }
+  }
+
+  @Test
+  public void testNeighborsMatchLinkedTiles() {
+    for (int i = 0; i < tiles.length; i++) {
+      BoardTile[] neighbors = tiles[i].getNeighbors().toArray(new BoardTile[0]);
+      assertArrayEquals(this.indicesOf(neighbors), grid.getNeighborIndices(i));
+    }
+  }
+
+  @Test
+  public void testPassableNeighborsMatchLinkedTiles() {
+    for (Species s : Species.values()) {
+      for (int i = 0; i < tiles.length; i++) {
+        assertArrayEquals(this.indicesOf(tiles[i].getPassableNeighbors(s)),
+            grid.getPassableNeighborIndices(s, i));
+      }
+    }
+  }
+
+  @Test
+  public void testPickMatchesChooseDestination() {
+    for (Species s : Species.values()) {
+      boolean[] passable = new boolean[TileType.values().length];
+      for (TileType t : TileType.values()) {
+        passable[t.ordinal()] = t.isPassableBy(s);
+      }
+      for (int i = 0; i < tiles.length; i++) {
+        Optional<BoardTile> chosen = tiles[i].chooseDestination(s, new SplittableRandom(i));
+        int picked = grid.pickPassableNeighbor(passable, i, new SplittableRandom(i));
+        assertEquals(chosen.isPresent() ? Arrays.asList(tiles).indexOf(chosen.get()) : -1, picked);
+      }
+    }
+  }
+
+  @Test
+  public void testTilesAreCreatedOnDemand() {
+    ScenarioTutorial scenario = new ScenarioTutorial(null);
+    TileGrid board = scenario.getGrid();
+    for (int i = 0; i < board.getNumTiles(); i++) {
+      assertNull(board.getTileIfCreated(i));
+    }
+    
+    int index = board.indexOf(3, 3);
+    BoardTile tile = scenario.getTile(index);
+    assertSame(tile, board.getTileIfCreated(index));
+    assertSame(tile, scenario.getTile(index));
+    assertEquals(index, scenario.getTileIndex(tile));
+    for (int i = 0; i < board.getNumTiles(); i++) {
+      if (i != index) {
+        assertNull(board.getTileIfCreated(i));
+      }
+    }
+    
+    // only the tile moved onto is created
+    Optional<BoardTile> chosen =
+        tile.chooseDestination(Species.values()[0], new SplittableRandom(1));
+    int created = 0;
+    for (int i = 0; i < board.getNumTiles(); i++) {
+      if (board.getTileIfCreated(i) != null) {
+        created++;
+      }
+    }
+    assertEquals(chosen.isPresent() ? 2 : 1, created);
+    
+    // a tile from another board is not on this one
+    assertEquals(-1, scenario.getTileIndex(tiles[index]));
+  }
+
+  @Test
+  public void testPlaceableAnywhere() {
+    assertTrue(grid.isPlaceableAnywhereBy(Species.cyanobacterium));
+    assertFalse(new TileGrid(0, 0, new byte[0]).isPlaceableAnywhereBy(Species.cyanobacterium));
+    for (TileType type : TileType.values()) {
+      TileGrid uniform = new TileGrid(1, 2, new byte[] { (byte) type.ordinal(),
+          (byte) type.ordinal() });
+      assertEquals(type.isPlaceableBy(Species.ecoli), uniform.isPlaceableAnywhereBy(Species.ecoli));
+    }
+  }
+}
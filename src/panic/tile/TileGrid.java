@@ -0,0 +1,351 @@
+package panic.tile;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import panic.org.Species;
+
+/**
+ * The terrain of a Scenario board, stored as one TileType ordinal per tile in row-major order.
+ * <br>
+ * A TileGrid works out neighbors from board indices, so boards of many millions of tiles cost
+ * little more than a byte per tile. It is the source of truth for a Scenario's board: the
+ * BoardTile of a tile, which holds its Organisms, is only created once something needs it.
+ * @author Sam Paniccia
+ *
+ */
+public class TileGrid {
+
+  private static final TileType[] TYPES = TileType.values();
+
+  /**
+   * How many rows are on the board
+   */
+  private final int rows;
+
+  /**
+   * How many columns are on the board
+   */
+  private final int cols;
+
+  /**
+   * The TileType ordinal of every tile, by board index
+   */
+  private final byte[] types;
+
+  /**
+   * The BoardTile of every tile that has one, by board index, or null until the first is
+   * created. BoardTiles are only created for the tiles that need them, such as those with
+   * Organisms on them.
+   */
+  private volatile AtomicReferenceArray<BoardTile> tiles;
+
+  /**
+   * Every BoardTile with an Organism on it, living or dead, in its first numOccupied slots, in no
+   * particular order. Each knows its own slot (BoardTile#getOccupiedSlot()), so that it may be
+   * added or removed in constant time as Organisms arrive, leave and die.
+   */
+  private BoardTile[] occupied;
+
+  /**
+   * The number of BoardTiles with an Organism on them
+   */
+  private int numOccupied;
+
+  /**
+   * Every BoardTile whose Organisms have changed since it was last rendered, each once, in its
+   * first numDirty slots, in the order they first changed
+   */
+  private BoardTile[] dirty;
+
+  /**
+   * The number of BoardTiles waiting to be rendered again
+   */
+  private int numDirty;
+
+  /**
+   * @param types The TileType ordinal of every tile, by board index; kept, not copied
+   */
+  public TileGrid(int rows, int cols, byte[] types) {
+    if (types.length != rows * cols) {
+      throw new IllegalArgumentException("A " + cols + "x" + rows + " board cannot have "
+          + types.length + " tiles");
+    }
+    this.rows = rows;
+    this.cols = cols;
+    this.types = types;
+    this.occupied = new BoardTile[0];
+    this.dirty = new BoardTile[0];
+  }
+
+  // getters
+
+  public int getRows() {
+    return this.rows;
+  }
+
+  public int getCols() {
+    return this.cols;
+  }
+
+  /**
+   * To retrieve the number of tiles on the board
+   */
+  public int getNumTiles() {
+    return this.types.length;
+  }
+
+  public TileType getTileType(int index) {
+    return TYPES[this.types[index]];
+  }
+
+  /**
+   * To get the board index of the tile at the given row and column
+   */
+  public int indexOf(int row, int col) {
+    return row * this.cols + col;
+  }
+
+  // topology
+
+  /**
+   * To retrieve the board indices of the neighbors of the tile at the given index, in the same
+   * order as BoardTile#getNeighbors() (above, left, right, below)
+   */
+  public int[] getNeighborIndices(int index) {
+    int[] neighbors = new int[4];
+    int n = 0;
+    int col = index % this.cols;
+    if (index >= this.cols) {
+      neighbors[n++] = index - this.cols;
+    }
+    if (col > 0) {
+      neighbors[n++] = index - 1;
+    }
+    if (col < this.cols - 1) {
+      neighbors[n++] = index + 1;
+    }
+    if (index + this.cols < this.types.length) {
+      neighbors[n++] = index + this.cols;
+    }
+    return (n == neighbors.length) ? neighbors : Arrays.copyOf(neighbors, n);
+  }
+
+  /**
+   * To retrieve the board indices of the neighbors of the tile at the given index that the given
+   * species is able to move onto, in the same order as BoardTile#getPassableNeighbors(Species)
+   */
+  public int[] getPassableNeighborIndices(Species species, int index) {
+    int[] neighbors = this.getNeighborIndices(index);
+    int n = 0;
+    for (int neighbor : neighbors) {
+      if (this.getTileType(neighbor).isPassableBy(species)) {
+        neighbors[n++] = neighbor;
+      }
+    }
+    return (n == neighbors.length) ? neighbors : Arrays.copyOf(neighbors, n);
+  }
+
+  /**
+   * To determine whether an Organism of the given species may be placed onto any tile of the
+   * board, without creating any BoardTile
+   */
+  public boolean isPlaceableAnywhereBy(Species species) {
+    boolean[] placeable = new boolean[TYPES.length];
+    for (TileType type : TYPES) {
+      placeable[type.ordinal()] = type.isPlaceableBy(species);
+    }
+    for (byte type : this.types) {
+      if (placeable[type]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * To pick, at random, a neighbor of the tile at the given index that the given species is
+   * able to move onto. Draws from the given stream exactly as
+   * BoardTile#chooseDestination(Species, SplittableRandom) does, without building any arrays.
+   * @param passable Whether the given species may move onto each TileType, by ordinal
+   * @return The board index of the destination, or -1 if there is none
+   */
+  public int pickPassableNeighbor(boolean[] passable, int index, SplittableRandom rand) {
+    int col = index % this.cols;
+    int above = (index >= this.cols && passable[this.types[index - this.cols]]) ? 1 : 0;
+    int left = (col > 0 && passable[this.types[index - 1]]) ? 1 : 0;
+    int right = (col < this.cols - 1 && passable[this.types[index + 1]]) ? 1 : 0;
+    int below = (index + this.cols < this.types.length
+        && passable[this.types[index + this.cols]]) ? 1 : 0;
+    int count = above + left + right + below;
+    if (count == 0) {
+      return -1;
+    }
+    int pick = rand.nextInt(count);
+    if (pick < above) {
+      return index - this.cols;
+    }
+    pick -= above;
+    if (pick < left) {
+      return index - 1;
+    }
+    pick -= left;
+    return (pick < right) ? index + 1 : index + this.cols;
+  }
+
+  // BoardTiles
+
+  /**
+   * To get the BoardTile of the tile at the given index, creating it if it has not been yet.
+   * Safe to call from many threads at once: every caller gets the same BoardTile.
+   */
+  public BoardTile getTile(int index) {
+    AtomicReferenceArray<BoardTile> tiles = this.getCreatedTiles();
+    BoardTile tile = tiles.get(index);
+    if (tile == null) {
+      BoardTile created = this.getTileType(index).createTile(index / this.cols, index % this.cols);
+      created.attach(this, index);
+      tile = tiles.compareAndSet(index, null, created) ? created : tiles.get(index);
+    }
+    return tile;
+  }
+
+  /**
+   * To get the BoardTile of the tile at the given index, or null if it has not been created
+   */
+  public BoardTile getTileIfCreated(int index) {
+    AtomicReferenceArray<BoardTile> tiles = this.tiles;
+    return (tiles == null) ? null : tiles.get(index);
+  }
+
+  /**
+   * To get the BoardTiles of the tiles at the given indices, creating any not yet created
+   */
+  public BoardTile[] getTiles(int[] indices) {
+    BoardTile[] tiles = new BoardTile[indices.length];
+    for (int i = 0; i < indices.length; i++) {
+      tiles[i] = this.getTile(indices[i]);
+    }
+    return tiles;
+  }
+
+  /**
+   * To create the BoardTile of every tile on the board
+   */
+  public BoardTile[] createTiles() {
+    BoardTile[] tiles = new BoardTile[this.types.length];
+    for (int i = 0; i < tiles.length; i++) {
+      tiles[i] = this.getTile(i);
+    }
+    return tiles;
+  }
+
+  /**
+   * To take the given BoardTiles, one per tile of the board in board order, as the BoardTiles of
+   * this board (e.g. those of a board read from an old save)
+   */
+  public void adoptTiles(List<BoardTile> tiles) {
+    AtomicReferenceArray<BoardTile> created = this.getCreatedTiles();
+    for (int i = 0; i < tiles.size(); i++) {
+      tiles.get(i).attach(this, i);
+      created.set(i, tiles.get(i));
+    }
+  }
+
+  private AtomicReferenceArray<BoardTile> getCreatedTiles() {
+    AtomicReferenceArray<BoardTile> tiles = this.tiles;
+    if (tiles == null) {
+      synchronized (this) {
+        tiles = this.tiles;
+        if (tiles == null) {
+          tiles = new AtomicReferenceArray<BoardTile>(this.types.length);
+          this.tiles = tiles;
+        }
+      }
+    }
+    return tiles;
+  }
+
+  // occupancy
+
+  /**
+   * To get every BoardTile with an Organism on it, living or dead, in no particular order
+   */
+  public synchronized BoardTile[] getOccupiedTiles() {
+    return Arrays.copyOf(this.occupied, this.numOccupied);
+  }
+
+  /**
+   * To add the given BoardTile of this board to the occupied tiles, or to remove it, in constant
+   * time. Safe to call from many threads at once.
+   */
+  synchronized void setOccupied(BoardTile tile, boolean occupied) {
+    int slot = tile.getOccupiedSlot();
+    if (occupied && slot < 0) {
+      if (this.numOccupied == this.occupied.length) {
+        this.occupied = Arrays.copyOf(this.occupied, Math.max(16, this.numOccupied * 2));
+      }
+      tile.setOccupiedSlot(this.numOccupied);
+      this.occupied[this.numOccupied++] = tile;
+    } else if (!occupied && slot >= 0) {
+      BoardTile last = this.occupied[--this.numOccupied];
+      this.occupied[slot] = last;
+      last.setOccupiedSlot(slot);
+      this.occupied[this.numOccupied] = null;
+      tile.setOccupiedSlot(-1);
+    }
+  }
+
+  // rendering
+
+  /**
+   * To add the given BoardTile of this board to the tiles to render again, unless it is already
+   * among them. Safe to call from many threads at once.
+   */
+  synchronized void markDirty(BoardTile tile) {
+    if (tile.isDirty()) {
+      return;
+    }
+    if (this.numDirty == this.dirty.length) {
+      this.dirty = Arrays.copyOf(this.dirty, Math.max(16, this.numDirty * 2));
+    }
+    this.dirty[this.numDirty++] = tile;
+    tile.setDirty(true);
+  }
+
+  /**
+   * To get every BoardTile whose Organisms have changed since this was last called, including
+   * those that have just become empty, and to clear their marks, so that a repaint costs as
+   * much as the changes since the last rather than the size of the board
+   */
+  public synchronized BoardTile[] takeDirtyTiles() {
+    BoardTile[] taken = Arrays.copyOf(this.dirty, this.numDirty);
+    for (BoardTile tile : taken) {
+      tile.setDirty(false);
+    }
+    Arrays.fill(this.dirty, 0, this.numDirty, null);
+    this.numDirty = 0;
+    return taken;
+  }
+
+  /**
+   * To get the area the whole board is rendered in, borders included
+   */
+  public Rectangle getBounds() {
+    return new Rectangle(0, 0, this.cols * BoardTile.size + 1, this.rows * BoardTile.size + 1);
+  }
+
+  /**
+   * To render the terrain of every tile, without creating any BoardTile
+   */
+  public void drawTerrain(Graphics2D g) {
+    for (int i = 0; i < this.types.length; i++) {
+      BoardTile.drawTerrain(g, this.getTileType(i), (i % this.cols) * BoardTile.size,
+          (i / this.cols) * BoardTile.size);
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package panic.tile;
+
+import java.awt.Color;
+import java.util.Optional;
+
+import panic.gene.CoefficientTable;
+import panic.gene.SurvivalTrait;
+import panic.org.Species;
+
+/**
+ * Every type of BoardTile, in the order of their coefficient rows.<br>
+ * Everything that is the same for every tile of a type (its name, symbol and colors) is kept
+ * here once, rather than on each tile.
+ * @author Sam Paniccia
+ *
+ */
+public enum TileType {
+  forest("Forest", 'f', new Color(0x149100), new Color(0xefeeff), new Color(0xcccccc)),
+  mountain("Mountain", 'm', new Color(0xA0522D), new Color(0xffffff), new Color(0xeeeeee)),
+  ocean("Ocean", 'o', new Color(0x3366ff), new Color(0xeeeeee), new Color(0xeeeeee)),
+  deep_ocean("Deep Ocean", 'd', new Color(0x004fce), new Color(0xeeeeee), new Color(0xeeeeee));
+
+  /**
+   * Color of tile border, for every type of tile
+   */
+  public static final Color COLOR_BORDER = new Color(0xffffff);
+
+  /**
+   * The TileType of each Scenario file symbol, indexed by symbol, or null if the symbol is not a
+   * tile
+   */
+  private static final TileType[] BY_SYMBOL = new TileType[128];
+
+  static {
+    for (TileType t : TileType.values()) {
+      BY_SYMBOL[t.symbol] = t;
+    }
+  }
+
+  /**
+   * The in-game name of this type of tile, as used in the gamedata files
+   */
+  private String tileName;
+
+  /**
+   * The character standing for this type of tile in Scenario files
+   */
+  private char symbol;
+
+  /**
+   * Color of tile
+   */
+  private Color colorFill;
+
+  /**
+   * Color of number indication of how many Organisms are on a tile
+   */
+  private Color colorNumOrgs;
+
+  /**
+   * Color of grave, to show that an Organism died on a tile
+   */
+  private Color colorGrave;
+
+  private TileType(String tileName, char symbol, Color colorFill, Color colorNumOrgs,
+      Color colorGrave) {
+    this.tileName = tileName;
+    this.symbol = symbol;
+    this.colorFill = colorFill;
+    this.colorNumOrgs = colorNumOrgs;
+    this.colorGrave = colorGrave;
+  }
+
+  /**
+   * To get the desired TileType from its in-game name
+   */
+  public static Optional<TileType> getTileTypeFromName(String name) {
+    for (TileType t : TileType.values()) {
+      if (t.tileName.equalsIgnoreCase(name)) {
+        return Optional.of(t);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * To get the TileType that the given Scenario file symbol stands for, or null if it stands for
+   * none
+   */
+  public static TileType fromSymbol(int symbol) {
+    return (symbol >= 0 && symbol < BY_SYMBOL.length) ? BY_SYMBOL[symbol] : null;
+  }
+
+  /**
+   * To create a BoardTile of this type at the given row and column of the board
+   */
+  public BoardTile createTile(int row, int col) {
+    switch (this) {
+    case forest:
+      return new ForestTile(row, col);
+    case mountain:
+      return new MountainTile(row, col);
+    case ocean:
+      return new OceanTile(row, col);
+    default:
+      return new DeepOceanTile(row, col);
+    }
+  }
+
+  /**
+   * To get the in-game name of this TileType
+   */
+  public String getName() {
+    return this.tileName;
+  }
+
+  /**
+   * To get the character standing for this TileType in Scenario files
+   */
+  public char getSymbol() {
+    return this.symbol;
+  }
+
+  public Color getColorFill() {
+    return this.colorFill;
+  }
+
+  public Color getColorNumOrgs() {
+    return this.colorNumOrgs;
+  }
+
+  public Color getColorGrave() {
+    return this.colorGrave;
+  }
+
+  // coefficients
+
+  /**
+   * To get the Tile-Trait weight of this type of tile for the given SurvivalTrait
+   */
+  public double getTraitValue(SurvivalTrait which) {
+    return CoefficientTable.getInstance().getTileValue(this, which);
+  }
+
+  /**
+   * To get the Organism-Tile-Trait weight of this type of tile for the given species and
+   * SurvivalTrait
+   */
+  public double getSurvivalTraitForOrganism(Species species, SurvivalTrait which) {
+    return CoefficientTable.getInstance().getSpeciesTileValue(species, this, which);
+  }
+
+  /**
+   * To determine whether an Organism of the given species may be placed onto this type of tile
+   */
+  public boolean isPlaceableBy(Species species) {
+    return this.getSurvivalTraitForOrganism(species, SurvivalTrait.mobility) > -1;
+  }
+
+  /**
+   * To determine whether the given species is able to move onto this type of tile
+   */
+  public boolean isPassableBy(Species species) {
+    return this.getSurvivalTraitForOrganism(species, SurvivalTrait.mobility) >= -1;
+  }
+}